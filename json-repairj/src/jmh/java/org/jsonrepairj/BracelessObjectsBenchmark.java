@@ -0,0 +1,38 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * An array of objects that lost their braces: ["id": 0, "name": "n0", "id": 1, ...]
+ * Every repeated key closes the current object and opens a new one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class BracelessObjectsBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int objects;
+
+    String anomalyJSON;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < objects; i++) {
+            sb.append("\"id\": ").append(i).append(", \"name\": \"n").append(i).append("\", ");
+        }
+        anomalyJSON = sb.append(']').toString();
+    }
+
+    @Benchmark
+    public void repairBracelessObjects(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.repairJson(anomalyJSON));
+    }
+}
@@ -0,0 +1,61 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Character classification on non-ASCII text, where Set<Character> lookups box (and allocate) every char.
+ * Compare gc.alloc.rate.norm between the two lookups and on the repair itself (the gc profiler is enabled in build.gradle).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class CharClassBenchmark {
+
+    String text;
+    String anomalyJSON;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append("统一码“引号”的测试文本，数字 ").append(i).append("，");
+        }
+        text = sb.toString();
+        anomalyJSON = "{\"名称\": \"" + text + "\", 描述: " + text + ", \"值\": [1, 2, 3";
+    }
+
+    @Benchmark
+    public int setLookup() {
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Constants.STRING_DELIMITERS.contains(c) || Constants.NUMBER_CHARS.contains(c)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int tableLookup() {
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Constants.isStringDelimiter(c) || Constants.isNumberChar(c)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public void repair(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.parseJson(anomalyJSON, true, false));
+    }
+}
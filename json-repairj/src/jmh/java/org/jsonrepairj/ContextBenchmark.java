@@ -0,0 +1,45 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Objects nested `depth` deep, each with a long string value full of inner quotes and commas, and no closing braces:
+ * {"text": "a "quoted" word, ...", "next": {"text": ...
+ * The string heuristics look at the context for every such character, the time should not grow with the depth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ContextBenchmark {
+    // about the same input length whatever the depth
+    private static final int LENGTH = 1 << 18;
+
+    @Param({"10", "100", "1000"})
+    int depth;
+
+    String anomalyJSON;
+
+    @Setup
+    public void setup() {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < LENGTH / depth) {
+            text.append("a \"quoted\" word, ");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append("{\"text\": \"").append(text).append("\", \"next\": ");
+        }
+        anomalyJSON = sb.append("null").toString();
+    }
+
+    @Benchmark
+    public void repairNestedStrings(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.repairJson(anomalyJSON));
+    }
+}
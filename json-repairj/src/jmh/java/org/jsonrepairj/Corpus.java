@@ -0,0 +1,111 @@
+package org.jsonrepairj;
+
+import java.util.Random;
+
+/*
+ * Generated json to benchmark on: an array of records as an LLM would send them, every record broken the same way,
+ * repeated up to a size. The same size and breakage always give the same text.
+ */
+public final class Corpus {
+
+    public enum Breakage {
+        // nothing to repair, read as it is
+        VALID,
+        // unquoted keys and unquoted string values
+        MISSING_QUOTES,
+        // records missing their closing brace
+        MISSING_BRACES,
+        // line and block comments between and inside the records
+        COMMENTS,
+        // string values in doubled quotes, and quotes left unescaped inside strings
+        DOUBLED_QUOTES,
+        // valid records, cut in the middle of the last one
+        TRUNCATED
+    }
+
+    private static final String[] WORDS = {"alpha", "beta", "gamma", "delta", "north", "south", "red", "blue", "item", "value"};
+
+    private Corpus() {
+    }
+
+    /**
+     * @param size in chars, the text is a little longer (up to a record) unless truncated
+     */
+    public static String generate(Breakage breakage, int size) {
+        Random random = new Random(31L * size + breakage.ordinal());
+        StringBuilder sb = new StringBuilder(size + 256).append('[');
+        for (int i = 0; sb.length() < size; i++) {
+            if (i > 0) {
+                sb.append(",\n");
+            }
+            record(sb, breakage, i, random);
+        }
+        if (breakage == Breakage.TRUNCATED) {
+            sb.setLength(size);
+        } else {
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    private static void record(StringBuilder sb, Breakage breakage, int id, Random random) {
+        if (breakage == Breakage.COMMENTS) {
+            sb.append("// record ").append(id).append('\n');
+        }
+        sb.append('{');
+        key(sb, breakage, "id").append(id).append(", ");
+        key(sb, breakage, "name");
+        text(sb, breakage, words(random, 2)).append(", ");
+        key(sb, breakage, "price").append(random.nextInt(10000) / 100.0).append(", ");
+        if (breakage == Breakage.COMMENTS) {
+            sb.append("/* in stock */ ");
+        }
+        key(sb, breakage, "active").append(random.nextBoolean()).append(", ");
+        key(sb, breakage, "tags").append('[');
+        for (int k = 0, n = 1 + random.nextInt(3); k < n; k++) {
+            if (k > 0) {
+                sb.append(", ");
+            }
+            text(sb, breakage, words(random, 1));
+        }
+        sb.append("], ");
+        key(sb, breakage, "note");
+        if (breakage == Breakage.DOUBLED_QUOTES) {
+            sb.append("\"the ").append(words(random, 1)).append(" said \"").append(words(random, 2)).append("\" twice\"");
+        } else {
+            text(sb, breakage, words(random, 6) + ", and " + words(random, 3));
+        }
+        if (breakage != Breakage.MISSING_BRACES) {
+            sb.append('}');
+        }
+    }
+
+    private static StringBuilder key(StringBuilder sb, Breakage breakage, String key) {
+        if (breakage == Breakage.MISSING_QUOTES) {
+            return sb.append(key).append(": ");
+        }
+        return sb.append('"').append(key).append("\": ");
+    }
+
+    private static StringBuilder text(StringBuilder sb, Breakage breakage, String text) {
+        switch (breakage) {
+            case MISSING_QUOTES:
+                return sb.append(text);
+            case DOUBLED_QUOTES:
+                return sb.append("\"\"").append(text).append("\"\"");
+            default:
+                return sb.append('"').append(text).append('"');
+        }
+    }
+
+    private static String words(Random random, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < n; k++) {
+            if (k > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
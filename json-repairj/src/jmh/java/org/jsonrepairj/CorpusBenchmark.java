@@ -0,0 +1,47 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Throughput of a whole repair on the generated corpora, by size (1 KB to 10 MB) and by the way the input is broken,
+ * see Corpus. The time should grow with the size only, an input taking much longer per KB as it grows is a quadratic
+ * path; with the gc profiler the allocation per operation shows what the repair costs beyond the output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class CorpusBenchmark {
+
+    @Param({"1024", "65536", "1048576", "10485760"})
+    int size;
+
+    @Param
+    Corpus.Breakage breakage;
+
+    String input;
+    JsonRepairer repairer;
+
+    @Setup
+    public void setup() {
+        input = Corpus.generate(breakage, size);
+        repairer = new JsonRepairer();
+    }
+
+    @Benchmark
+    public String repairJson() {
+        return repairer.repairJson(input);
+    }
+
+    @Benchmark
+    public StringBuilder repairToText() throws IOException {
+        StringBuilder out = new StringBuilder(input.length());
+        repairer.repairJson(input, out);
+        return out;
+    }
+}
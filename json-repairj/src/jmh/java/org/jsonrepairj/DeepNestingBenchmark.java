@@ -0,0 +1,38 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Unclosed arrays and objects nested `depth` deep: [{"a": [{"a": ... 1
+ * The parser keeps its own stack of frames, the time should grow with the input only, whatever its depth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DeepNestingBenchmark {
+
+    @Param({"10", "500", "5000"})
+    int depth;
+
+    String anomalyJSON;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append("[{\"a\": ");
+        }
+        anomalyJSON = sb.append('1').toString();
+    }
+
+    @Benchmark
+    public void repairDeepNesting(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.repairJson(anomalyJSON));
+    }
+}
@@ -0,0 +1,72 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A long chat transcript, paragraphs of prose with a few answers in json, from which the json is taken: repaired as a
+ * whole, as most callers do, against extracted block by block.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ExtractBenchmark {
+    private static final String[] WORDS = {"the", "model", "answer", "request", "user", "result", "value", "format",
+            "please", "here", "is", "with", "list", "of", "items", "and", "check", "output", "field", "done"};
+
+    public enum Answers {
+        // in ```json fences
+        FENCED,
+        // in the prose
+        INLINE
+    }
+
+    @Param
+    Answers answers;
+
+    @Param({"256"})
+    int sizeKb;
+
+    String transcript;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(sizeKb);
+        StringBuilder sb = new StringBuilder();
+        for (int turn = 0; sb.length() < sizeKb * 1024; turn++) {
+            sb.append(turn % 2 == 0 ? "## User\n" : "## Assistant\n");
+            for (int p = 0, n = 1 + random.nextInt(4); p < n; p++) {
+                for (int w = 0, m = 30 + random.nextInt(60); w < m; w++) {
+                    sb.append(WORDS[random.nextInt(WORDS.length)]).append(w % 12 == 11 ? ". " : " ");
+                }
+                sb.append("See https://example.com/docs/").append(turn).append(" for more.\n\n");
+            }
+            if (turn % 10 == 9) {
+                String json = "{\"turn\": " + turn + ", \"items\": [{\"id\": 1, \"name\": \"first\"}, {id: 2, name: \"second\"}], \"done\": true}";
+                sb.append(answers == Answers.FENCED ? "```json\n" + json + "\n```\n\n" : "The result is " + json + " as asked.\n\n");
+            }
+        }
+        transcript = sb.toString();
+    }
+
+    @Benchmark
+    public void repairJson(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.parseJson(transcript, false, false, LogLevel.OFF));
+    }
+
+    @Benchmark
+    public void extractJson(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.extractJson(transcript));
+    }
+
+    @Benchmark
+    public void extractFirstJson(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.extractFirstJson(transcript));
+    }
+}
@@ -0,0 +1,38 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A heavily broken input (unquoted keys and values, comments, missing colons and brackets) repaired at each log level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class FixLogBenchmark {
+
+    @Param({"OFF", "CODES", "FULL"})
+    LogLevel logLevel;
+
+    String anomalyJSON;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            sb.append("{name: item ").append(i).append(", // the item\n \"tags\" [\"a\", b, \"c\"")
+                    .append(" /* unclosed ").append(i).append(" */ \"note\": \"say \"hi\" here\",\n");
+        }
+        anomalyJSON = sb.toString();
+    }
+
+    @Benchmark
+    public void repair(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.parseJson(anomalyJSON, true, false, logLevel));
+    }
+}
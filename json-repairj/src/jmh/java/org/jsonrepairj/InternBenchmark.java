@@ -0,0 +1,74 @@
+package org.jsonrepairj;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Small documents with the same keys and the same few values, repaired with and without an InternTable: the time and
+ * allocation of a repair (see the gc profiler), and at the end of the trial the heap the repaired corpus holds on to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class InternBenchmark {
+    private static final int DOCUMENTS = 20_000;
+
+    @Param({"false", "true"})
+    boolean intern;
+
+    List<String> corpus;
+    JsonRepairer repairer;
+
+    @Setup
+    public void setup() {
+        String records = Corpus.generate(Corpus.Breakage.MISSING_QUOTES, 512 * 1024);
+        corpus = new ArrayList<>();
+        // a document a record, as the records are between "[" or ",\n" and "}"
+        for (int start = 1; corpus.size() < DOCUMENTS; ) {
+            int end = records.indexOf('}', start) + 1;
+            if (end == 0) {
+                start = 1;
+                continue;
+            }
+            corpus.add(records.substring(start, end));
+            start = end + 2;
+        }
+        RepairOptions options = intern ? RepairOptions.builder().internTable(new InternTable()).build() : RepairOptions.DEFAULT;
+        repairer = new JsonRepairer(options);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void repair(Blackhole blackhole) {
+        for (String document : corpus) {
+            blackhole.consume(repairer.parseJson(document, true, false, LogLevel.OFF).getJson());
+        }
+    }
+
+    @TearDown
+    public void retained() {
+        long before = usedHeap();
+        List<JsonNode> repaired = new ArrayList<>(DOCUMENTS);
+        for (String document : corpus) {
+            repaired.add(repairer.parseJson(document, true, false, LogLevel.OFF).getJson());
+        }
+        long after = usedHeap();
+        System.out.printf("%nintern=%s: %d repaired documents retain %.1f MB%n", intern, repaired.size(), (after - before) / 1e6);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,36 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * The static entry point against a reused parser, on small inputs where the parser setup is a good part of the work.
+ * Compare gc.alloc.rate.norm as well as the timings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class JsonRepairerBenchmark {
+
+    @Param({
+            "{\"f\":\"v\", \"a\":[1",
+            "{\"f\":\"v\", \"a\":[1,2], \"o1\":{\"f1\":\"v1\"}, ",
+            "{\"name\": \"volume_set\", \"arguments\": {\"volume\": \"+\", \"+\", \"position\": \"空\", \"source\": \"空\", \"target\": \"空\"}}"
+    })
+    String anomalyJSON;
+
+    @Benchmark
+    public void staticParseJson(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.parseJson(anomalyJSON, true, false));
+    }
+
+    @Benchmark
+    public void pooledParseJson(Blackhole blackhole) {
+        blackhole.consume(JsonRepairer.forCurrentThread().parseJson(anomalyJSON, true, false));
+    }
+}
@@ -0,0 +1,54 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Throughput of repairLines by the number of workers: 20000 JSON Lines records, one in four of them broken
+ * (unquoted key, single quotes, trailing comma, no closing bracket).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class LinesBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    int workers;
+
+    String lines;
+    ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            if (i % 4 == 0) {
+                sb.append("{id: ").append(i).append(", 'name': \"record ").append(i).append("\", \"tags\": [1, 2,\n");
+            } else {
+                sb.append("{\"id\": ").append(i).append(", \"name\": \"record ").append(i).append("\", \"tags\": [1, 2]}\n");
+            }
+        }
+        lines = sb.toString();
+        pool = new ForkJoinPool(workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String repairLines() throws IOException {
+        StringWriter out = new StringWriter(lines.length());
+        JsonRepair.repairLines(new StringReader(lines), out, pool);
+        return out.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Getting plain maps and lists out of a repair: parseJson then converting the JsonNode tree, against repairing straight
+ * into a MapListBuilder.
+ * 10000 objects, either broken (unquoted keys, no closing bracket) or valid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class NodeBuilderBenchmark {
+
+    @Param({"broken", "valid"})
+    String input;
+
+    String json;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 10000; i++) {
+            sb.append("{\"id\": ").append(i).append(", \"name\": \"item ").append(i).append("\", tags: [\"x\", \"y\"], \"ok\": true}, ");
+        }
+        json = sb.toString();
+        if (input.equals("valid")) {
+            json = JsonRepair.repairJson(json);
+        }
+    }
+
+    @Benchmark
+    public void treeThenConvert(Blackhole blackhole) {
+        ParseResult result = JsonRepair.parseJson(json, false, false, LogLevel.OFF);
+        blackhole.consume(Json.MAPPER.convertValue(result.getJson(), Object.class));
+    }
+
+    @Benchmark
+    public void mapListBuilder(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.repairJson(json, new MapListBuilder()));
+    }
+
+    @Benchmark
+    public void jsonNodeBuilder(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.repairJson(json, new JsonNodeBuilder()));
+    }
+}
@@ -0,0 +1,63 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Throughput of each NodeParser: a 64 KB array of values all going to the same parser, broken the usual ways.
+ * Run with the gc profiler to see what each parser allocates per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class NodeParserBenchmark {
+
+    @Param({"string", "number", "booleanNull", "array", "object", "comment"})
+    String parser;
+
+    String input;
+    JsonRepairer repairer;
+
+    @Setup
+    public void setup() {
+        String[] values;
+        switch (parser) {
+            case "string":
+                values = new String[]{"\"plain text\"", "'single quoted'", "\"inner \"quoted\" words\"",
+                        "\"escaped \\\"quotes\\\" and \\u00e9\"", "\"\"doubled\"\"", "\"a comma, inside\""};
+                break;
+            case "number":
+                values = new String[]{"12", "-3.5", "6.02e23", "0.25", "1/3", "7."};
+                break;
+            case "booleanNull":
+                values = new String[]{"true", "false", "null", "True", "False", "None"};
+                break;
+            case "array":
+                values = new String[]{"[1, 2, 3]", "[1, 2,]", "[[1, 2], [3, 4]]", "[\"a\", \"b\" \"c\"]", "[]"};
+                break;
+            case "object":
+                values = new String[]{"{\"a\": 1, \"b\": 2}", "{a: 1, b: 2}", "{\"a\": {\"b\": 1}}", "{\"a\": 1,}", "{\"a\" 1}"};
+                break;
+            case "comment":
+                values = new String[]{"// line\n1", "/* block */ 2", "# hash\n3", "/* a longer block, with ', \" and ] */ 4"};
+                break;
+            default:
+                throw new IllegalArgumentException(parser);
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; sb.length() < 1 << 16; i++) {
+            sb.append(values[i % values.length]).append(", ");
+        }
+        input = sb.append(']').toString();
+        repairer = new JsonRepairer();
+    }
+
+    @Benchmark
+    public ParseResult parse() {
+        return repairer.parseJson(input, true, false, LogLevel.OFF);
+    }
+}
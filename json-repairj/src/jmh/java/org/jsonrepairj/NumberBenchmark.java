@@ -0,0 +1,73 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Arrays of numbers, as embeddings or series are sent, cut short so that the parser (not Jackson) reads them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class NumberBenchmark {
+
+    public enum Numbers {
+        // 0 to 9999
+        INTS,
+        // ids and timestamps past the range of an int
+        LONGS,
+        // embeddings: -1 to 1 with 8 decimals
+        DECIMALS,
+        // doubles written with all their digits and an exponent, e.g. 1.2345678901234567E-5
+        DOUBLES,
+        // integers past the range of a long
+        BIG_INTEGERS
+    }
+
+    private static final int COUNT = 10_000;
+
+    @Param
+    Numbers numbers;
+
+    String array;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(numbers.ordinal());
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < COUNT; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            switch (numbers) {
+                case INTS:
+                    sb.append(random.nextInt(10_000));
+                    break;
+                case LONGS:
+                    sb.append(1_700_000_000_000L + random.nextInt(Integer.MAX_VALUE));
+                    break;
+                case DECIMALS:
+                    sb.append(String.format(Locale.ROOT, "%.8f", random.nextDouble() * 2 - 1));
+                    break;
+                case DOUBLES:
+                    sb.append(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10));
+                    break;
+                default:
+                    sb.append(Long.MAX_VALUE).append(random.nextInt(1_000_000));
+            }
+        }
+        array = sb.toString();
+    }
+
+    @Benchmark
+    public void repairNumbers(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.parseJson(array, true, false, LogLevel.OFF));
+    }
+}
@@ -0,0 +1,83 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * The arguments of a tool call as an LLM sends them, broken in the keys, repaired with and without the schema of the
+ * tool: the time a schema saves on the keys it knows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ToolCallBenchmark {
+    static final String PARAMETERS = "{\"type\": \"object\", \"properties\": {"
+            + "\"city\": {\"type\": \"string\"}, \"country\": {\"type\": \"string\"}, \"days\": {\"type\": \"integer\"}, "
+            + "\"units\": {\"type\": \"string\"}, \"include_hourly\": {\"type\": \"boolean\"}, "
+            + "\"fields\": {\"type\": \"array\", \"items\": {\"type\": \"string\"}}, "
+            + "\"location\": {\"type\": \"object\", \"properties\": {\"lat\": {\"type\": \"number\"}, \"lon\": {\"type\": \"number\"}}}}}";
+
+    public enum Keys {
+        // {city: "Paris", ...}
+        UNQUOTED,
+        // {"city: "Paris", country": "FR", ...}
+        MISQUOTED,
+        // {'city': "Paris", ...}
+        SINGLE_QUOTED,
+        // {"city": "Paris", "Lyon", ...}
+        STRAY_VALUES
+    }
+
+    @Param
+    Keys keys;
+
+    @Param({"false", "true"})
+    boolean schema;
+
+    String arguments;
+    JsonRepairer repairer;
+
+    @Setup
+    public void setup() {
+        arguments = arguments(keys);
+        RepairOptions options = schema
+                ? RepairOptions.builder().schema(RepairSchema.fromJsonSchema(PARAMETERS)).build()
+                : RepairOptions.DEFAULT;
+        repairer = new JsonRepairer(options);
+    }
+
+    static String arguments(Keys keys) {
+        String[] names = {"city", "country", "days", "units", "include_hourly", "fields", "location", "lat", "lon"};
+        String[] quoted = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            switch (keys) {
+                case UNQUOTED:
+                    quoted[i] = names[i];
+                    break;
+                case MISQUOTED:
+                    quoted[i] = i % 2 == 0 ? "\"" + names[i] : names[i] + "\"";
+                    break;
+                case SINGLE_QUOTED:
+                    quoted[i] = "'" + names[i] + "'";
+                    break;
+                default:
+                    quoted[i] = "\"" + names[i] + "\"";
+            }
+        }
+        String stray = keys == Keys.STRAY_VALUES ? ", \"Lyon\"" : "";
+        return "{" + quoted[0] + ": \"Paris\"" + stray + ", " + quoted[1] + ": \"FR\", " + quoted[2] + ": 5, "
+                + quoted[3] + ": \"metric\"" + stray + ", " + quoted[4] + ": true, "
+                + quoted[5] + ": [\"temperature\", \"wind speed\", \"humidity\"], "
+                + quoted[6] + ": {" + quoted[7] + ": 48.8566, " + quoted[8] + ": 2.3522}}";
+    }
+
+    @Benchmark
+    public void repairToolCall(Blackhole blackhole) {
+        blackhole.consume(repairer.parseJson(arguments, true, false, LogLevel.OFF));
+    }
+}
@@ -0,0 +1,48 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A UTF-8 response body repaired from its bytes, against decoding it to a String first.
+ * 200 objects with accented and CJK text, either valid or broken (unquoted keys, no closing bracket).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class Utf8Benchmark {
+
+    @Param({"valid", "broken"})
+    String input;
+
+    byte[] utf8;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            sb.append("{name: \"Zo\u00eb ").append(i).append("\", \"city\": \"\u6771\u4eac\", \"note\": \"caf\u00e9 \u201cau lait\u201d\"}, ");
+        }
+        String json = sb.toString();
+        if (input.equals("valid")) {
+            json = JsonRepair.repairJson(json);
+        }
+        utf8 = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void decodeThenRepair(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.parseJson(new String(utf8, StandardCharsets.UTF_8), false, false));
+    }
+
+    @Benchmark
+    public void repairBytes(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.parseJson(utf8, false, false));
+    }
+}
@@ -0,0 +1,58 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * parseJson checking validity with JsonValidator, against trying Jackson's readTree first and repairing when it throws.
+ * 200 objects: valid, slightly broken (only the closing bracket missing, so Jackson reads it all before failing) or
+ * heavily broken (unquoted keys and values, comments, missing colons).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ValidityCheckBenchmark {
+
+    @Param({"valid", "slightlyBroken", "heavilyBroken"})
+    String input;
+
+    String json;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            if (input.equals("heavilyBroken")) {
+                sb.append("{name: item ").append(i).append(", // the item\n \"tags\" [\"a\", b, \"c\"], ");
+            } else {
+                sb.append(i == 0 ? "" : ", ").append("{\"name\": \"item ").append(i).append("\", \"tags\": [\"a\", \"b\", \"c\"]}");
+            }
+        }
+        if (input.equals("valid")) {
+            sb.append("]");
+        }
+        json = sb.toString();
+    }
+
+    @Benchmark
+    public void validator(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.parseJson(json, false, false, LogLevel.OFF));
+    }
+
+    @Benchmark
+    public void readTreeThenRepair(Blackhole blackhole) {
+        ParseResult result;
+        try {
+            result = new ParseResult(Json.MAPPER.readTree(json), new ArrayList<>());
+        } catch (Exception e) {
+            result = JsonRepair.parseJson(json, true, false, LogLevel.OFF);
+        }
+        blackhole.consume(result);
+    }
+}
@@ -0,0 +1,50 @@
+package org.jsonrepairj;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * repairJson building a JsonNode tree and serializing it, against writing the repaired json directly.
+ * 10000 objects, either broken (unquoted keys, no closing bracket) or valid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class WriterBenchmark {
+
+    @Param({"broken", "valid"})
+    String input;
+
+    String json;
+    StringBuilder out = new StringBuilder();
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 10000; i++) {
+            sb.append("{\"id\": ").append(i).append(", \"name\": \"item ").append(i).append("\", tags: [\"x\", \"y\"], \"ok\": true}, ");
+        }
+        json = sb.toString();
+        if (input.equals("valid")) {
+            json = JsonRepair.repairJson(json);
+        }
+    }
+
+    @Benchmark
+    public void tree(Blackhole blackhole) {
+        blackhole.consume(JsonRepair.repairJson(json));
+    }
+
+    @Benchmark
+    public void writer(Blackhole blackhole) throws IOException {
+        out.setLength(0);
+        JsonRepair.repairJson(json, out);
+        blackhole.consume(out);
+    }
+}
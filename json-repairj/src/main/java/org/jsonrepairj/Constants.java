@@ -6,4 +6,40 @@ public class Constants {
     public static final Set<Character> STRING_DELIMITERS = new HashSet<>(Arrays.asList('"', '\'', '“', '”'));
     public static final Set<Character> NUMBER_CHARS = new HashSet<>(Arrays.asList('0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '-', '.', 'e', 'E', '/', ','));
     public static final char END = '\0';
-}
\ No newline at end of file
+
+    private static final byte STRING_DELIMITER = 1;
+    private static final byte NUMBER_CHAR = 1 << 1;
+    /**
+     * Classes of the ASCII characters, the parsers look these up for every character so the sets above (boxing each
+     * char) are only kept for callers. The curly quotes are the only non-ASCII characters in any class.
+     */
+    private static final byte[] CHAR_CLASSES = new byte[128];
+
+    static {
+        for (char c : STRING_DELIMITERS) {
+            if (c < CHAR_CLASSES.length) {
+                CHAR_CLASSES[c] |= STRING_DELIMITER;
+            }
+        }
+        for (char c : NUMBER_CHARS) {
+            CHAR_CLASSES[c] |= NUMBER_CHAR;
+        }
+    }
+
+    /**
+     * Same as {@code STRING_DELIMITERS.contains(c)}
+     */
+    public static boolean isStringDelimiter(char c) {
+        if (c < CHAR_CLASSES.length) {
+            return (CHAR_CLASSES[c] & STRING_DELIMITER) != 0;
+        }
+        return c == '“' || c == '”';
+    }
+
+    /**
+     * Same as {@code NUMBER_CHARS.contains(c)}
+     */
+    public static boolean isNumberChar(char c) {
+        return c < CHAR_CLASSES.length && (CHAR_CLASSES[c] & NUMBER_CHAR) != 0;
+    }
+}
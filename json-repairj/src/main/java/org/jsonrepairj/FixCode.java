@@ -0,0 +1,53 @@
+package org.jsonrepairj;
+
+import lombok.Getter;
+
+/**
+ * What a repair did, one value per place the parser logs a fix.
+ */
+public enum FixCode {
+    MORE_JSON_ELEMENTS("The parser returned early, checking if there's more json elements"),
+    NO_MORE_JSON_ELEMENTS("There were no more elements, returning the element without the array"),
+    COLON_BEFORE_KEY("While parsing an object we found a : before a key, ignoring"),
+    DUPLICATE_KEY("While parsing an object we found a duplicate key, closing the object here and rolling back the index"),
+    MISSING_COLON("While parsing an object we missed a : after a key"),
+    STRAY_COMMA_IN_OBJECT_VALUE("While parsing an object value we found a stray , ignoring it"),
+    STRAY_ELLIPSIS_IN_ARRAY("While parsing an array, found a stray '...'; ignoring it"),
+    MISSING_ARRAY_CLOSE("While parsing an array we missed the closing ], ignoring it"),
+    LITERAL_INSTEAD_OF_QUOTE("While parsing a string, we found a literal instead of a quote"),
+    DOUBLED_QUOTE_THEN_QUOTE("While parsing a string, we found a doubled quote and then a quote again, ignoring it"),
+    VALID_STARTING_DOUBLED_QUOTE("While parsing a string, we found a valid starting doubled quote"),
+    DOUBLED_QUOTE_AND_QUOTE_AFTERWARDS("While parsing a string, we found a doubled quote but also another quote afterwards, ignoring it"),
+    MISTAKEN_DOUBLED_QUOTE("While parsing a string, we found a doubled quote but it was a mistake, removing one quote"),
+    MISSING_LEFT_QUOTE_KEY_COLON("While parsing a string missing the left delimiter in object key context, we found a :, stopping here"),
+    MISSING_LEFT_QUOTE_ARRAY_STOP("While parsing a string missing the left delimiter in array context, we found a ] or ,, stopping here"),
+    MISSING_LEFT_QUOTE_VALUE_STOP("While parsing a string missing the left delimiter in object value context, we found a , or } and we couldn't determine that a right delimiter was present. Stopping here"),
+    STRAY_ESCAPE("Found a stray escape sequence, normalizing it"),
+    UNICODE_ESCAPE("Found a unicode escape sequence, normalizing it"),
+    ESCAPED_DELIMITER("Found a delimiter that was escaped but shouldn't be escaped, removing the escape"),
+    MISSING_RIGHT_QUOTE_KEY_COLON("While parsing a string missing the right delimiter in object key context, we found a :, stopping here"),
+    DOUBLED_QUOTE("While parsing a string, we found a doubled quote, ignoring it"),
+    NEXT_KEY_IN_VALUE("In a string with missing quotes and object value context, I found a delimeter but it turns out it was the beginning on the next key. Stopping here."),
+    MISPLACED_QUOTE("While parsing a string, we a misplaced quote that would have closed the string but has a different meaning here, ignoring it"),
+    QUOTED_SECTION_IN_ARRAY("While parsing a string in Array context, we detected a quoted section that would have closed the string but has a different meaning here, ignoring it"),
+    QUOTED_SECTION_IN_KEY("While parsing a string in Object Key context, we detected a quoted section that would have closed the string but has a different meaning here, ignoring it"),
+    COMMENT_INSTEAD_OF_STRING("While parsing a string, handling an extreme corner case in which the LLM added a comment instead of valid string, invalidate the string and return an empty value"),
+    MISSING_CLOSING_QUOTE("While parsing a string, we missed the closing quote, ignoring"),
+    LINE_COMMENT("Found line comment: %s, ignoring"),
+    BLOCK_COMMENT("Found block comment: %s, ignoring"),
+    UNCLOSED_BLOCK_COMMENT("Reached end-of-string while parsing block comment; unclosed block comment."),
+    TOO_DEEP("Found an array or object nested deeper than the maximum depth, replacing it with null"),
+    LIMIT_REACHED("Reached a limit of the repair options, ignoring the rest of the input"),
+    MISQUOTED_SCHEMA_KEY("While parsing an object key, we matched a key of the schema missing a quote: %s, adding it"),
+    STRAY_STRING_IN_OBJECT("While parsing an object with a schema, we found a string where a key was expected, not followed by a colon: %s, ignoring it");
+
+    /**
+     * The text of {@link FixInfo}, a %s is filled with the part of the input the fix is about
+     */
+    @Getter
+    private final String message;
+
+    FixCode(String message) {
+        this.message = message;
+    }
+}
@@ -6,6 +6,24 @@ import lombok.Data;
 @Data
 @AllArgsConstructor
 public class FixInfo {
+    // null with LogLevel.CODES
     String text;
     String context;
+    FixCode code;
+    // index in the input when the fix was made
+    int offset;
+    // the part of the input the fix is about, start == end when it is about a position
+    int start;
+    int end;
+
+    /**
+     * A fix known only by its text and context, without a code (null) or a place in the input (offset -1).
+     */
+    public FixInfo(String text, String context) {
+        this(text, context, null, -1);
+    }
+
+    public FixInfo(String text, String context, FixCode code, int offset) {
+        this(text, context, code, offset, offset, offset);
+    }
 }
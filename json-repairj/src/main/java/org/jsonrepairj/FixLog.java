@@ -0,0 +1,233 @@
+package org.jsonrepairj;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * The fixes of a repair as {@link ParseResult#getLogger()} returns them, kept as three ints each: the {@link FixCode},
+ * and the start and end in the input of the part the fix is about (start == end when it is about a position).
+ * Counting the fixes by code or looking at their offsets costs no allocation, the {@link FixInfo} of a fix (its text
+ * and the input around it) is only made when the list is read with {@link #get(int)} or iterated over, a new one
+ * every time.
+ * <p>
+ * Holds on to the input, to make the text from. Fixes are added with {@link #add(FixCode, int, int, boolean)} rather
+ * than as FixInfo, they can be removed as from any list.
+ * <p>
+ * A {@link #view(int, int)} of a log shares its first fixes with it rather than copying them.
+ */
+public class FixLog extends AbstractList<FixInfo> implements RandomAccess {
+    private static final int[] EMPTY = new int[0];
+    /**
+     * The context of a FixInfo is the input around the end of the fix, that many chars before and after it.
+     */
+    public static final int CONTEXT_WINDOW = 10;
+    private static final FixCode[] CODES = FixCode.values();
+
+    private final CharSequence input;
+    // the first fixes, those of another log that this one is a view of
+    private int[] head = EMPTY;
+    private int headSize;
+    // code, start, end of every fix after them; the code is shifted left by one, its lowest bit set when the text is
+    // recorded
+    private int[] entries = EMPTY;
+    private int size;
+
+    public FixLog(CharSequence input) {
+        this.input = input;
+    }
+
+    /**
+     * @param withText whether the FixInfo has the text of the fix and the input around it, see {@link LogLevel}
+     */
+    public void add(FixCode code, int start, int end, boolean withText) {
+        if (size * 3 == entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(12, entries.length * 2));
+        }
+        int at = size * 3;
+        entries[at] = code.ordinal() << 1 | (withText ? 1 : 0);
+        entries[at + 1] = start;
+        entries[at + 2] = end;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * @param kept how many of the first fixes of this log are shared: they are never removed, fixes are only added
+     * after them or removed from after them, so the view can read them where they are
+     * @param length how much of the input the view makes the text from, the input being a buffer that grows
+     * @return a log of the same fixes, that doesn't change with this one
+     */
+    public FixLog view(int kept, int length) {
+        int[] all = flatten();
+        FixLog view = new FixLog(new Prefix(input, length));
+        view.head = kept == 0 ? EMPTY : all;
+        view.headSize = kept;
+        view.entries = Arrays.copyOfRange(all, kept * 3, size() * 3);
+        view.size = size() - kept;
+        return view;
+    }
+
+    public FixCode code(int index) {
+        checkIndex(index);
+        return CODES[field(index, 0) >>> 1];
+    }
+
+    public int start(int index) {
+        checkIndex(index);
+        return field(index, 1);
+    }
+
+    public int end(int index) {
+        checkIndex(index);
+        return field(index, 2);
+    }
+
+    /**
+     * @return how many fixes have the code
+     */
+    public int count(FixCode code) {
+        int n = 0;
+        for (int i = 0; i < size(); i++) {
+            if (field(i, 0) >>> 1 == code.ordinal()) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return how many fixes there are of each code made
+     */
+    public Map<FixCode, Integer> counts() {
+        int[] counts = new int[CODES.length];
+        for (int i = 0; i < size(); i++) {
+            counts[field(i, 0) >>> 1]++;
+        }
+        Map<FixCode, Integer> map = new EnumMap<>(FixCode.class);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                map.put(CODES[i], counts[i]);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * @return a log of the same fixes, that doesn't change with this one
+     */
+    public FixLog copy() {
+        FixLog copy = new FixLog(input);
+        copy.entries = Arrays.copyOf(flatten(), size() * 3);
+        copy.size = size();
+        return copy;
+    }
+
+    @Override
+    public FixInfo get(int index) {
+        checkIndex(index);
+        FixCode code = CODES[field(index, 0) >>> 1];
+        int start = field(index, 1);
+        int end = field(index, 2);
+        if ((field(index, 0) & 1) == 0) {
+            return new FixInfo(null, null, code, end, start, end);
+        }
+        String text = code.getMessage();
+        if (start < end) {
+            text = String.format(text, input.subSequence(start, end));
+        }
+        String context = input.subSequence(Math.max(end - CONTEXT_WINDOW, 0), Math.min(end + CONTEXT_WINDOW, input.length())).toString();
+        return new FixInfo(text, context, code, end, start, end);
+    }
+
+    @Override
+    public int size() {
+        return headSize + size;
+    }
+
+    @Override
+    public FixInfo remove(int index) {
+        FixInfo fix = get(index);
+        removeRange(index, index + 1);
+        return fix;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (headSize > 0) {
+            entries = Arrays.copyOf(flatten(), size() * 3);
+            size = size();
+            head = EMPTY;
+            headSize = 0;
+        }
+        System.arraycopy(entries, toIndex * 3, entries, fromIndex * 3, (size - toIndex) * 3);
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+
+    /**
+     * @return the field (0 for the code, 1 for the start, 2 for the end) of a fix
+     */
+    private int field(int index, int field) {
+        return index < headSize ? head[index * 3 + field] : entries[(index - headSize) * 3 + field];
+    }
+
+    /**
+     * @return the fixes in one array, the entries themselves unless this is a view
+     */
+    private int[] flatten() {
+        if (headSize == 0) {
+            return entries;
+        }
+        int[] all = Arrays.copyOf(head, size() * 3);
+        System.arraycopy(entries, 0, all, headSize * 3, size * 3);
+        return all;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    /**
+     * The first chars of a buffer that grows, those it had when the view was made.
+     */
+    private static class Prefix implements CharSequence {
+        private final CharSequence chars;
+        private final int length;
+
+        Prefix(CharSequence chars, int length) {
+            this.chars = chars;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+            }
+            return chars.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (end > length) {
+                throw new IndexOutOfBoundsException("End: " + end + ", Length: " + length);
+            }
+            return chars.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return chars.subSequence(0, length).toString();
+        }
+    }
+}
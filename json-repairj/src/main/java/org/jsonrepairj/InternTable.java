@@ -0,0 +1,76 @@
+package org.jsonrepairj;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import static org.jsonrepairj.Json.FACTORY;
+
+/**
+ * The strings repaired over and over, the keys of the objects and the short values such as enums, kept once: a repair
+ * with a table ({@link RepairOptions#getInternTable()}) looks the chars of every short string it repairs up in it, and
+ * returns the TextNode there when they are the same, allocating nothing.
+ * <p>
+ * The table is a fixed number of slots, a string taking the slot of its hash from the one there before: it never
+ * grows, however many strings go through it, and the strings repeated the most stay in it. Thread safe without locks,
+ * a table is best shared by all the repairs of the same kind of json. Two threads interning the same string at once
+ * may both allocate it, one of them is kept.
+ */
+public final class InternTable {
+    private final TextNode[] slots;
+    private final int maxLength;
+
+    /**
+     * A table of 2048 strings of up to 32 chars.
+     */
+    public InternTable() {
+        this(2048, 32);
+    }
+
+    /**
+     * @param size      how many strings the table holds at most, rounded up to a power of two
+     * @param maxLength how long a string can be to be interned, the longer ones are allocated every time
+     */
+    public InternTable(int size, int maxLength) {
+        if (size < 1 || size > 1 << 30) {
+            throw new IllegalArgumentException("size must be between 1 and 2^30: " + size);
+        }
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("maxLength must not be negative: " + maxLength);
+        }
+        this.slots = new TextNode[size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1];
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return the TextNode of chars, the one in the table when chars are short enough
+     */
+    public TextNode textNode(CharSequence chars) {
+        int length = chars.length();
+        if (length > maxLength) {
+            return FACTORY.textNode(chars.toString());
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        int slot = (hash ^ hash >>> 16) & (slots.length - 1);
+        // TextNode is immutable (its string is final), a node read while another thread writes the slot is whole
+        TextNode node = slots[slot];
+        if (node == null || !contentEquals(node.textValue(), chars)) {
+            node = FACTORY.textNode(chars.toString());
+            slots[slot] = node;
+        }
+        return node;
+    }
+
+    private static boolean contentEquals(String s, CharSequence chars) {
+        if (s.length() != chars.length()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != chars.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
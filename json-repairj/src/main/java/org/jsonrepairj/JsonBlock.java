@@ -0,0 +1,19 @@
+package org.jsonrepairj;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A json found in a text, e.g. the answer of an LLM, repaired: see {@link JsonRepair#extractJson(String)}.
+ */
+@Data
+@AllArgsConstructor
+public class JsonBlock {
+    JsonNode json;
+    // the part of the text the json was repaired from: the value, or the content of its fence
+    int start;
+    int end;
+    // whether the json was in a ```json fence
+    boolean fenced;
+}
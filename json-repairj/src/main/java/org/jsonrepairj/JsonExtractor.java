@@ -0,0 +1,169 @@
+package org.jsonrepairj;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.jsonrepairj.parser.JSONParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Finds the json in a text where it is mixed with prose, see {@link JsonRepair#extractJson(String)}. The text is
+ * searched with {@link String#indexOf} for the fences and the brackets, only what follows a bracket goes through the
+ * parser.
+ */
+final class JsonExtractor {
+    private static final String FENCE = "```";
+
+    private final String text;
+    private final RepairOptions options;
+    private final boolean firstOnly;
+    private final List<JsonBlock> blocks = new ArrayList<>();
+    // the fences of the text: the start of the opening one, the start and end of the content, the end of the closing one
+    private final List<int[]> fences = new ArrayList<>();
+    private boolean jsonFences;
+    // the next '{' and '[' of the text, see nextBracket()
+    private int brace;
+    private int bracket;
+
+    JsonExtractor(String text, RepairOptions options, boolean firstOnly) {
+        this.text = text;
+        this.options = options;
+        this.firstOnly = firstOnly;
+        this.brace = text.indexOf('{');
+        this.bracket = text.indexOf('[');
+    }
+
+    List<JsonBlock> extract() {
+        findFences();
+        if (jsonFences) {
+            for (int[] fence : fences) {
+                if (isJsonFence(fence) && !repairFence(fence[1], fence[2])) {
+                    break;
+                }
+            }
+        } else {
+            // the text between the fences of code, which can have brackets of their own
+            int from = 0;
+            for (int[] fence : fences) {
+                if (!repairProse(from, fence[0])) {
+                    return blocks;
+                }
+                from = fence[3];
+            }
+            repairProse(from, text.length());
+        }
+        return blocks;
+    }
+
+    private void findFences() {
+        for (int open = text.indexOf(FENCE); open != -1; ) {
+            // the language follows the opening fence, e.g. ```json
+            int content = open + FENCE.length();
+            while (content < text.length() && Character.isLetterOrDigit(text.charAt(content))) {
+                content++;
+            }
+            int close = text.indexOf(FENCE, content);
+            // a fence left open runs to the end, as in a truncated answer
+            int end = close == -1 ? text.length() : close;
+            int[] fence = {open, content, end, close == -1 ? end : close + FENCE.length()};
+            fences.add(fence);
+            jsonFences |= isJsonFence(fence);
+            // the first json fence is the first json, whatever is in the rest of the text
+            open = close == -1 || firstOnly && jsonFences ? -1 : text.indexOf(FENCE, fence[3]);
+        }
+    }
+
+    /**
+     * @return whether the fence says it is json, or says nothing and starts as json does
+     */
+    private boolean isJsonFence(int[] fence) {
+        int languageStart = fence[0] + FENCE.length();
+        if (fence[1] > languageStart) {
+            return text.substring(languageStart, fence[1]).toLowerCase(Locale.ROOT).startsWith("json");
+        }
+        int first = skipWhitespaces(fence[1], fence[2]);
+        return first < fence[2] && (text.charAt(first) == '{' || text.charAt(first) == '[');
+    }
+
+    /**
+     * Repairs the content of a fence as a whole, as {@link JsonRepair#parseJson} does: valid json is read as it is.
+     *
+     * @return whether to go on with the next fence
+     */
+    private boolean repairFence(int start, int end) {
+        start = skipWhitespaces(start, end);
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return true;
+        }
+        JsonNode json = JsonRepair.parseJson(text.substring(start, end), false, false, LogLevel.OFF, options).getJson();
+        if (json instanceof MissingNode) {
+            return true;
+        }
+        blocks.add(new JsonBlock(json, start, end, true));
+        return !firstOnly;
+    }
+
+    /**
+     * Repairs a value from every bracket between start and end, but those in a value repaired before.
+     *
+     * @return whether to go on with the next part of the text
+     */
+    private boolean repairProse(int start, int end) {
+        JSONParser parser = null;
+        RepairListener listener = options.getListener();
+        long startTime = 0;
+        boolean more = true;
+        for (int from = start; more; ) {
+            int candidate = nextBracket(from);
+            if (candidate == -1 || candidate >= end) {
+                break;
+            }
+            if (parser == null) {
+                // only this part of the text, for the repair to stop at the fence after it
+                parser = new JSONParser(end - start == text.length() ? text : text.substring(start, end), false);
+                parser.setLogLevel(LogLevel.OFF);
+                parser.setOptions(options);
+                startTime = JsonRepair.startTime(listener);
+            }
+            // every candidate is a repair of its own, nothing of the previous one is left but the input
+            parser.restart(candidate - start);
+            JsonNode json = parser.parseJson();
+            int valueEnd = start + parser.getIndex();
+            if (!(json instanceof MissingNode)) {
+                blocks.add(new JsonBlock(json, candidate, valueEnd, false));
+                more = !firstOnly;
+            }
+            from = Math.max(valueEnd, candidate + 1);
+        }
+        if (parser != null) {
+            JsonRepair.repaired(listener, parser, end - start, startTime);
+        }
+        return more;
+    }
+
+    /**
+     * @return the position of the first '{' or '[' from a position, -1 when there is none
+     */
+    private int nextBracket(int from) {
+        // the positions found before are kept, the text is searched once whatever the number of fences
+        if (brace != -1 && brace < from) {
+            brace = text.indexOf('{', from);
+        }
+        if (bracket != -1 && bracket < from) {
+            bracket = text.indexOf('[', from);
+        }
+        return brace == -1 ? bracket : bracket == -1 ? brace : Math.min(brace, bracket);
+    }
+
+    private int skipWhitespaces(int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+}
@@ -0,0 +1,110 @@
+package org.jsonrepairj;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jsonrepairj.Json.FACTORY;
+
+/**
+ * Builds the json {@link JsonRepair#parseJson(String, boolean, boolean)} returns, as a Jackson tree. A missing node
+ * when there is no json.
+ */
+public class JsonNodeBuilder implements NodeBuilder<JsonNode> {
+    private final List<ContainerNode<?>> stack = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final ArrayNode roots = FACTORY.arrayNode();
+
+    @Override
+    public void startObject() {
+        ObjectNode object = FACTORY.objectNode();
+        value(object);
+        stack.add(object);
+        keys.add(null);
+    }
+
+    @Override
+    public void key(String key) {
+        keys.set(keys.size() - 1, key);
+    }
+
+    @Override
+    public void endObject() {
+        end();
+    }
+
+    @Override
+    public void startArray() {
+        ArrayNode array = FACTORY.arrayNode();
+        value(array);
+        stack.add(array);
+        keys.add(null);
+    }
+
+    @Override
+    public void endArray() {
+        end();
+    }
+
+    @Override
+    public void stringValue(String value) {
+        value(FACTORY.textNode(value));
+    }
+
+    @Override
+    public void numberValue(Number value) {
+        if (value instanceof Integer) {
+            value(FACTORY.numberNode((Integer) value));
+        } else if (value instanceof Long) {
+            value(FACTORY.numberNode((Long) value));
+        } else if (value instanceof BigInteger) {
+            value(FACTORY.numberNode((BigInteger) value));
+        } else if (value instanceof BigDecimal) {
+            value(FACTORY.numberNode((BigDecimal) value));
+        } else {
+            value(FACTORY.numberNode(value.doubleValue()));
+        }
+    }
+
+    @Override
+    public void booleanValue(boolean value) {
+        value(FACTORY.booleanNode(value));
+    }
+
+    @Override
+    public void nullValue() {
+        value(FACTORY.nullNode());
+    }
+
+    @Override
+    public JsonNode build() {
+        if (roots.isEmpty()) {
+            return FACTORY.missingNode();
+        }
+        return roots.size() == 1 ? roots.get(0) : roots;
+    }
+
+    private void value(JsonNode value) {
+        if (stack.isEmpty()) {
+            roots.add(value);
+            return;
+        }
+        ContainerNode<?> parent = stack.get(stack.size() - 1);
+        if (parent instanceof ObjectNode) {
+            ((ObjectNode) parent).set(keys.get(keys.size() - 1), value);
+        } else {
+            ((ArrayNode) parent).add(value);
+        }
+    }
+
+    private void end() {
+        stack.remove(stack.size() - 1);
+        keys.remove(keys.size() - 1);
+    }
+}
@@ -1,10 +1,41 @@
 package org.jsonrepairj;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.google.common.base.Throwables;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
 import lombok.NonNull;
 import org.jsonrepairj.parser.JSONParser;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import static org.jsonrepairj.Json.MAPPER;
 
@@ -32,10 +63,14 @@ import static org.jsonrepairj.Json.MAPPER;
  * All supported use cases are in the unit tests
  */
 public class JsonRepair {
-
-
+    // about as many chars of json lines repaired by one task of repairLines()
+    private static final int LINES_BATCH_CHARS = 1 << 16;
     /**
      * Given a json formatted string, it will try to decode it and, if it fails, it will try to fix it.
+     * <p>
+     * Numbers are read the same whether the json is valid or repaired, as Jackson reads them: an int, a long or a
+     * BigInteger for an integer, the nearest double for a number with a fraction or an exponent, except for a number
+     * whose double would be infinite or zero although it isn't, which is kept as it is written (a BigDecimal).
      *
      * @param jsonStr       The JSON string to repair.
      * @param skipJsonLoads If True, skip calling the built-in json.loads() function to verify that the json is valid before attempting to repair. Defaults to False.
@@ -47,25 +82,516 @@ public class JsonRepair {
             boolean skipJsonLoads,
             boolean streamStable) {
 
+        return parseJson(jsonStr, skipJsonLoads, streamStable, LogLevel.FULL);
+    }
+
+    /**
+     * Same as {@link #parseJson(String, boolean, boolean)}, recording the fixes made at the given level.
+     * {@link LogLevel#OFF} saves building the log when only the json is needed.
+     */
+    public static ParseResult parseJson(
+            @NonNull String jsonStr,
+            boolean skipJsonLoads,
+            boolean streamStable,
+            @NonNull LogLevel logLevel) {
+
+        return parseJson(jsonStr, skipJsonLoads, streamStable, logLevel, RepairOptions.DEFAULT);
+    }
+
+    /**
+     * Same as {@link #parseJson(String, boolean, boolean, LogLevel)} within the limits of options: when one is reached,
+     * either a {@link RepairLimitException} is thrown or the result is what was repaired so far, with the limit in
+     * {@link ParseResult#getLimit()}.
+     */
+    public static ParseResult parseJson(
+            @NonNull String jsonStr,
+            boolean skipJsonLoads,
+            boolean streamStable,
+            @NonNull LogLevel logLevel,
+            @NonNull RepairOptions options) {
+
         JSONParser parser = new JSONParser(jsonStr, streamStable);
+        parser.setLogLevel(logLevel);
+        parser.setOptions(options);
+        return parseJson(parser, jsonStr, skipJsonLoads);
+    }
+
+    static ParseResult parseJson(JSONParser parser, String jsonStr, boolean skipJsonLoads) {
+        RepairListener listener = parser.getOptions().getListener();
+        long startTime = startTime(listener);
         ParseResult parsedJson;
 
-        if (skipJsonLoads) {
+        if (skipJsonLoads || !readAsIs(parser, jsonStr)) {
             parsedJson = parser.parse();
         } else {
             try {
-                // Try to parse with Jackson first
+                // only valid json gets here, so Jackson normally doesn't throw
                 JsonNode node = MAPPER.readTree(jsonStr);
-                parsedJson = new ParseResult(node, new ArrayList<>());
+                validJson(listener, jsonStr.length(), startTime);
+                return new ParseResult(node, new ArrayList<>());
             } catch (Exception e) {
                 parsedJson = parser.parse();
             }
         }
+        repaired(listener, parser, jsonStr.length(), startTime);
         return parsedJson;
     }
 
+    /**
+     * @return jsonStr repaired as by {@link #parseJson(String, boolean, boolean)}, numbers included, as a json text
+     */
     public static String repairJson(String jsonStr) {
-        ParseResult result = parseJson(jsonStr, false, false);
+        return toJsonString(parseJson(jsonStr, false, false, LogLevel.OFF));
+    }
+
+    /**
+     * Same as {@link #repairJson(String)} within the limits of options, see
+     * {@link #parseJson(String, boolean, boolean, LogLevel, RepairOptions)}.
+     */
+    public static String repairJson(@NonNull String jsonStr, @NonNull RepairOptions options) {
+        return toJsonString(parseJson(jsonStr, false, false, LogLevel.OFF, options));
+    }
+
+    /**
+     * Writes the text {@link #repairJson(String)} returns to out, without building the json as a tree: valid json is
+     * copied token by token, broken json is written while it is repaired (when it repairs to several values, the first
+     * one is only written once the next one shows up, for them to be put in an array).
+     * <p>
+     * The only difference is with a key repeated in an object: repairJson keeps its last value (where the first one
+     * was), this writes every one of them.
+     */
+    public static void repairJson(@NonNull String jsonStr, @NonNull Appendable out) throws IOException {
+        JSONParser parser = new JSONParser(jsonStr, false);
+        parser.setLogLevel(LogLevel.OFF);
+        repairJson(parser, jsonStr, out);
+    }
+
+    static void repairJson(JSONParser parser, String jsonStr, Appendable out) throws IOException {
+        RepairListener listener = parser.getOptions().getListener();
+        long startTime = startTime(listener);
+        if (readAsIs(parser, jsonStr)) {
+            copyValidJson(jsonStr, out);
+            validJson(listener, jsonStr.length(), startTime);
+            return;
+        }
+        try {
+            parser.parseTo(out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        repaired(listener, parser, jsonStr.length(), startTime);
+    }
+
+    /**
+     * @return when a repair told to listener starts, the clock is only read when there is a listener
+     */
+    static long startTime(RepairListener listener) {
+        return listener == RepairListener.NONE ? 0 : System.nanoTime();
+    }
+
+    private static void validJson(RepairListener listener, int length, long startTime) {
+        if (listener != RepairListener.NONE) {
+            listener.validJson(length, System.nanoTime() - startTime);
+        }
+    }
+
+    static void repaired(RepairListener listener, JSONParser parser, int length, long startTime) {
+        if (listener != RepairListener.NONE) {
+            listener.repaired(length, System.nanoTime() - startTime, parser.getMaxDepthReached());
+        }
+    }
+
+    /**
+     * @return whether jsonStr is valid json that can be read as it is, without the parser, which is also needed when
+     * the options of the parser may limit it. Throws right away when jsonStr is longer than the options allow.
+     */
+    private static boolean readAsIs(JSONParser parser, String jsonStr) {
+        RepairOptions options = parser.getOptions();
+        if (options.isFailOnLimit() && jsonStr.length() > options.getMaxInputLength()) {
+            throw new RepairLimitException(RepairLimit.INPUT_LENGTH, options.getMaxInputLength());
+        }
+        return !options.limitsValidJson(jsonStr.length()) && JsonValidator.isValid(jsonStr);
+    }
+
+    /**
+     * Copies the valid json jsonStr to out token by token.
+     */
+    private static void copyValidJson(String jsonStr, Appendable out) throws IOException {
+        // only valid json gets here, the validator turns down what Jackson wouldn't read
+        try (JsonParser parser = MAPPER.getFactory().createParser(jsonStr);
+             JsonGenerator generator = MAPPER.getFactory().createGenerator(CharStreams.asWriter(out))) {
+            // out is the caller's, flushed but left open
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #repairLines(Reader, Writer, Executor)} on the common ForkJoinPool.
+     */
+    public static void repairLines(@NonNull Reader in, @NonNull Writer out) throws IOException {
+        repairLines(in, out, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as {@link #repairLines(Reader, Writer, Executor)} for the UTF-8 lines of a file, on the common ForkJoinPool.
+     */
+    public static void repairLines(@NonNull Path input, @NonNull Writer out) throws IOException {
+        try (Reader in = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            repairLines(in, out, ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * Repairs every line of in as a record of its own (JSON Lines, NDJSON), and writes them to out in the same order,
+     * each as {@link #repairJson(String, Appendable)} writes it followed by '\n'. A line that repairs to nothing, e.g.
+     * a blank one, is left out.
+     * <p>
+     * Batches of lines are repaired on executor (a ForkJoinPool, a virtual thread executor...) while the next ones are
+     * read. Reading waits for the oldest batch to be written once a few per core are pending, so memory stays bounded
+     * whatever the size of in. in is not closed, out is flushed but not closed.
+     */
+    public static void repairLines(@NonNull Reader in, @NonNull Writer out, @NonNull Executor executor) throws IOException {
+        int parallelism = executor instanceof ForkJoinPool
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        int maxPending = 4 * parallelism;
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        Deque<CompletableFuture<String>> pending = new ArrayDeque<>();
+        try {
+            List<String> batch = new ArrayList<>();
+            int batchChars = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                batch.add(line);
+                batchChars += line.length();
+                if (batchChars >= LINES_BATCH_CHARS) {
+                    List<String> lines = batch;
+                    pending.add(CompletableFuture.supplyAsync(() -> repairLines(lines), executor));
+                    batch = new ArrayList<>();
+                    batchChars = 0;
+                    if (pending.size() == maxPending) {
+                        out.write(join(pending.remove()));
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<String> lines = batch;
+                pending.add(CompletableFuture.supplyAsync(() -> repairLines(lines), executor));
+            }
+            while (!pending.isEmpty()) {
+                out.write(join(pending.remove()));
+            }
+            out.flush();
+        } finally {
+            for (CompletableFuture<String> batchResult : pending) {
+                batchResult.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return the repaired lines, each followed by '\n'
+     */
+    private static String repairLines(List<String> lines) {
+        JSONParser parser = new JSONParser("", false);
+        parser.setLogLevel(LogLevel.OFF);
+        StringBuilder out = new StringBuilder();
+        for (String line : lines) {
+            int start = out.length();
+            parser.reset(line);
+            try {
+                repairJson(parser, line, out);
+            } catch (IOException e) {
+                // a StringBuilder doesn't throw
+                throw new UncheckedIOException(e);
+            }
+            if (out.length() > start) {
+                out.append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static String join(CompletableFuture<String> batchResult) {
+        try {
+            return batchResult.join();
+        } catch (CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    /**
+     * Repairs jsonStr straight into the model builder makes, e.g. {@link MapListBuilder} for plain java maps and lists,
+     * without building a Jackson tree and converting it. Valid json is read token by token, broken json is passed to
+     * builder while it is repaired.
+     *
+     * @return what builder built
+     */
+    public static <T> T repairJson(@NonNull String jsonStr, @NonNull NodeBuilder<T> builder) {
+        // builder can't take back what it was given, so the json is checked before it gets any of it
+        if (JsonValidator.isValid(jsonStr)) {
+            return readValidJson(jsonStr, builder);
+        }
+        JSONParser parser = new JSONParser(jsonStr, false);
+        parser.setLogLevel(LogLevel.OFF);
+        return parser.parse(builder);
+    }
+
+    private static <T> T readValidJson(String jsonStr, NodeBuilder<T> builder) {
+        try (JsonParser parser = MAPPER.getFactory().createParser(jsonStr)) {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                switch (token) {
+                    case START_OBJECT:
+                        builder.startObject();
+                        break;
+                    case FIELD_NAME:
+                        builder.key(parser.getCurrentName());
+                        break;
+                    case END_OBJECT:
+                        builder.endObject();
+                        break;
+                    case START_ARRAY:
+                        builder.startArray();
+                        break;
+                    case END_ARRAY:
+                        builder.endArray();
+                        break;
+                    case VALUE_STRING:
+                        builder.stringValue(parser.getText());
+                        break;
+                    case VALUE_NUMBER_INT:
+                    case VALUE_NUMBER_FLOAT:
+                        builder.numberValue(parser.getNumberValue());
+                        break;
+                    case VALUE_TRUE:
+                    case VALUE_FALSE:
+                        builder.booleanValue(token == JsonToken.VALUE_TRUE);
+                        break;
+                    default:
+                        builder.nullValue();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Same as {@link #parseJson(String, boolean, boolean)} for UTF-8 encoded json, a byte order mark is skipped.
+     * Valid json is read by Jackson straight from the bytes, broken json is decoded once and repaired as a String.
+     */
+    public static ParseResult parseJson(@NonNull byte[] utf8, boolean skipJsonLoads, boolean streamStable) {
+        return parseUtf8(utf8, 0, utf8.length, skipJsonLoads, streamStable, LogLevel.FULL);
+    }
+
+    /**
+     * Same as {@link #parseJson(byte[], boolean, boolean)} for the remaining bytes of utf8, its position is left as is.
+     */
+    public static ParseResult parseJson(@NonNull ByteBuffer utf8, boolean skipJsonLoads, boolean streamStable) {
+        return parseUtf8(utf8, skipJsonLoads, streamStable, LogLevel.FULL);
+    }
+
+    /**
+     * Same as {@link #parseJson(byte[], boolean, boolean)} for the bytes read from utf8 up to its end, it isn't closed.
+     */
+    public static ParseResult parseJson(@NonNull InputStream utf8, boolean skipJsonLoads, boolean streamStable) throws IOException {
+        return parseJson(ByteStreams.toByteArray(utf8), skipJsonLoads, streamStable);
+    }
+
+    public static String repairJson(@NonNull byte[] utf8) {
+        return toJsonString(parseUtf8(utf8, 0, utf8.length, false, false, LogLevel.OFF));
+    }
+
+    public static String repairJson(@NonNull ByteBuffer utf8) {
+        return toJsonString(parseUtf8(utf8, false, false, LogLevel.OFF));
+    }
+
+    public static String repairJson(@NonNull InputStream utf8) throws IOException {
+        return repairJson(ByteStreams.toByteArray(utf8));
+    }
+
+    /**
+     * Repairs the UTF-8 json in the file input into the file output, which is created or replaced (and must not be
+     * input), with the text {@link #repairJson(String, Appendable)} would write.
+     * <p>
+     * input is memory mapped and read where it is, and the json written out while it is repaired, so the heap only
+     * holds what the parser is working on (the containers still open, the string being read) and, unless input is
+     * plain ASCII, a few bytes per KB of it. input must be smaller than 2 GB.
+     *
+     * @throws IllegalArgumentException when input is 2 GB or larger
+     */
+    public static void repairJson(@NonNull Path input, @NonNull Path output) throws IOException {
+        ByteBuffer utf8 = map(input);
+        if (JsonValidator.isValid(utf8) && copyValidJson(utf8, output)) {
+            return;
+        }
+        int values;
+        try (Writer out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            JSONParser parser = new JSONParser(new Utf8Text(utf8), false);
+            parser.setLogLevel(LogLevel.OFF);
+            values = parser.parse(out);
+        }
+        if (values > 1) {
+            wrapInArray(output);
+        }
+    }
+
+    /**
+     * The top level values of jsonStr, repaired one at a time as the stream gets to them: a text of many concatenated
+     * values (a log) is processed value by value instead of being held as the array {@link #parseJson} returns.
+     */
+    public static Stream<JsonNode> repairValues(@NonNull String jsonStr) {
+        if (JsonValidator.isValid(jsonStr)) {
+            try {
+                JsonNode node = MAPPER.readTree(jsonStr);
+                return node.isMissingNode() ? Stream.empty() : Stream.of(node);
+            } catch (Exception e) {
+                // beyond what the validator looks at, repaired like broken json
+            }
+        }
+        JSONParser parser = new JSONParser(jsonStr, false);
+        parser.setLogLevel(LogLevel.OFF);
+        return parser.stream();
+    }
+
+    /**
+     * The json in a text where it is mixed with prose, e.g. the answer of an LLM, each repaired with where it is in the
+     * text. When the text has fences of json (```json, or ``` followed by a bracket) the content of each is a json,
+     * repaired as by {@link #parseJson(String, boolean, boolean)}. Else every value starting with a bracket ('{' or
+     * '[') is one, outside of the fences of code: a bracket in the prose, e.g. [1], is a json too.
+     * <p>
+     * Faster than {@link #repairJson(String)} on a long text, which goes over the prose char by char: the fences and the
+     * brackets are looked for with {@link String#indexOf}, only the json is parsed.
+     *
+     * @return the json in the order of the text, empty when there is none
+     */
+    public static List<JsonBlock> extractJson(@NonNull String text) {
+        return extractJson(text, RepairOptions.DEFAULT);
+    }
+
+    /**
+     * Same as {@link #extractJson(String)}, every json repaired within the limits of options.
+     */
+    public static List<JsonBlock> extractJson(@NonNull String text, @NonNull RepairOptions options) {
+        return new JsonExtractor(text, options, false).extract();
+    }
+
+    /**
+     * Same as {@link #extractJson(String)}, stopping at the first json: the rest of the text is not looked at.
+     *
+     * @return the first json, null when there is none
+     */
+    public static JsonBlock extractFirstJson(@NonNull String text) {
+        return extractFirstJson(text, RepairOptions.DEFAULT);
+    }
+
+    /**
+     * Same as {@link #extractFirstJson(String)}, the json repaired within the limits of options.
+     */
+    public static JsonBlock extractFirstJson(@NonNull String text, @NonNull RepairOptions options) {
+        List<JsonBlock> blocks = new JsonExtractor(text, options, true).extract();
+        return blocks.isEmpty() ? null : blocks.get(0);
+    }
+
+    /**
+     * Same as {@link #repairValues(String)} for the UTF-8 text of a file, memory mapped as by
+     * {@link #repairJson(Path, Path)}: only the value being parsed is on the heap.
+     *
+     * @throws IllegalArgumentException when input is 2 GB or larger
+     */
+    public static Stream<JsonNode> repairValues(@NonNull Path input) throws IOException {
+        JSONParser parser = new JSONParser(new Utf8Text(map(input)), false);
+        parser.setLogLevel(LogLevel.OFF);
+        return parser.stream();
+    }
+
+    /**
+     * @return the whole file, mapped read only, without its byte order mark
+     */
+    private static ByteBuffer map(Path input) throws IOException {
+        // the mapping stays valid once the channel is closed
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(input + " is too large to be mapped: " + size + " bytes");
+            }
+            ByteBuffer utf8 = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size >= 3 && utf8.get(0) == (byte) 0xEF && utf8.get(1) == (byte) 0xBB && utf8.get(2) == (byte) 0xBF) {
+                utf8.position(3);
+            }
+            return utf8.slice();
+        }
+    }
+
+    /**
+     * @return false when utf8 isn't a single valid json value, output is then left with whatever was copied so far
+     */
+    private static boolean copyValidJson(ByteBuffer utf8, Path output) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(new ByteBufferBackedInputStream(utf8.duplicate()));
+             JsonGenerator generator = MAPPER.getFactory().createGenerator(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            try {
+                if (parser.nextToken() != null) {
+                    generator.copyCurrentStructure(parser);
+                    return parser.nextToken() == null;
+                }
+                return true;
+            } catch (JsonProcessingException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Puts the comma separated values in file between brackets, through a copy next to it.
+     */
+    private static void wrapInArray(Path file) throws IOException {
+        Path copy = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(copy))) {
+                out.write('[');
+                Files.copy(file, out);
+                out.write(']');
+            }
+            Files.move(copy, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    private static ParseResult parseUtf8(byte[] utf8, int offset, int length, boolean skipJsonLoads, boolean streamStable, LogLevel logLevel) {
+        return parseUtf8(ByteBuffer.wrap(utf8, offset, length), skipJsonLoads, streamStable, logLevel);
+    }
+
+    private static ParseResult parseUtf8(ByteBuffer utf8, boolean skipJsonLoads, boolean streamStable, LogLevel logLevel) {
+        ByteBuffer bytes = utf8.slice();
+        if (bytes.remaining() >= 3 && bytes.get(0) == (byte) 0xEF && bytes.get(1) == (byte) 0xBB && bytes.get(2) == (byte) 0xBF) {
+            bytes.position(3);
+            bytes = bytes.slice();
+        }
+        int length = bytes.remaining();
+        if (!skipJsonLoads && JsonValidator.isValid(bytes)) {
+            try {
+                JsonNode json = bytes.hasArray() ? MAPPER.readTree(bytes.array(), bytes.arrayOffset(), length)
+                        : MAPPER.readTree(new ByteBufferBackedInputStream(bytes.duplicate()));
+                return new ParseResult(json, new ArrayList<>());
+            } catch (Exception e) {
+                // beyond what the validator looks at, repaired like broken json
+            }
+        }
+        // decoded once: the parser reads a String faster than it decodes the bytes as it goes, see Utf8Text
+        String jsonStr = bytes.hasArray()
+                ? new String(bytes.array(), bytes.arrayOffset(), length, StandardCharsets.UTF_8)
+                : StandardCharsets.UTF_8.decode(bytes).toString();
+        JSONParser parser = new JSONParser(jsonStr, streamStable);
+        parser.setLogLevel(logLevel);
+        return parser.parse();
+    }
+
+    static String toJsonString(ParseResult result) {
         if (result.getJson().isMissingNode()) {
             return "";
         }
@@ -0,0 +1,71 @@
+package org.jsonrepairj;
+
+import lombok.NonNull;
+import org.jsonrepairj.parser.JSONParser;
+
+import java.io.IOException;
+
+/**
+ * Same as the static methods of {@link JsonRepair}, but reusing one parser for every repair, so that a repair only
+ * allocates the repaired json (and what the heuristics need along the way).
+ * <p>
+ * An instance is not thread safe, use {@link #forCurrentThread()} or one instance per thread.
+ * The repairer of {@link #forCurrentThread()} has the default {@link RepairOptions}.
+ */
+public class JsonRepairer {
+    private static final ThreadLocal<JsonRepairer> THREAD_LOCAL = ThreadLocal.withInitial(JsonRepairer::new);
+
+    private final JSONParser parser = new JSONParser("", false);
+
+    public JsonRepairer() {
+    }
+
+    /**
+     * A repairer keeping every repair within the limits of options, see
+     * {@link JsonRepair#parseJson(String, boolean, boolean, LogLevel, RepairOptions)}.
+     */
+    public JsonRepairer(@NonNull RepairOptions options) {
+        parser.setOptions(options);
+    }
+
+    /**
+     * @return the repairer of the current thread
+     */
+    public static JsonRepairer forCurrentThread() {
+        return THREAD_LOCAL.get();
+    }
+
+    /**
+     * @see JsonRepair#parseJson(String, boolean, boolean)
+     */
+    public ParseResult parseJson(@NonNull String jsonStr, boolean skipJsonLoads, boolean streamStable) {
+        return parseJson(jsonStr, skipJsonLoads, streamStable, LogLevel.FULL);
+    }
+
+    /**
+     * @see JsonRepair#parseJson(String, boolean, boolean, LogLevel)
+     */
+    public ParseResult parseJson(@NonNull String jsonStr, boolean skipJsonLoads, boolean streamStable, @NonNull LogLevel logLevel) {
+        parser.reset(jsonStr);
+        parser.setStreamStable(streamStable);
+        parser.setLogLevel(logLevel);
+        return JsonRepair.parseJson(parser, jsonStr, skipJsonLoads);
+    }
+
+    /**
+     * @see JsonRepair#repairJson(String)
+     */
+    public String repairJson(String jsonStr) {
+        return JsonRepair.toJsonString(parseJson(jsonStr, false, false, LogLevel.OFF));
+    }
+
+    /**
+     * @see JsonRepair#repairJson(String, Appendable)
+     */
+    public void repairJson(@NonNull String jsonStr, @NonNull Appendable out) throws IOException {
+        parser.reset(jsonStr);
+        parser.setStreamStable(false);
+        parser.setLogLevel(LogLevel.OFF);
+        JsonRepair.repairJson(parser, jsonStr, out);
+    }
+}
@@ -0,0 +1,400 @@
+package org.jsonrepairj;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Tells whether Jackson would read a text as json, without Jackson: one scan that throws nothing and allocates nothing
+ * but its stack of brackets.
+ * <p>
+ * Most of the text to repair is broken, and finding that out with {@code MAPPER.readTree} costs a parse up to the
+ * error, an exception with its stack trace, and then the repair parses it all again. This accepts what readTree
+ * accepts with the features of {@link Json#MAPPER}: a single value (or only whitespace), strict RFC 8259, within
+ * Jackson's limits on nesting depth, number length and string length (a floating point number right at the length
+ * limit may be turned down although Jackson would read it).
+ * <p>
+ * A floating point number about past the range of a double is turned down too: Jackson reads it as an infinite or
+ * zero double, where the repair keeps the number as it is written, so such json is read by the repair.
+ */
+abstract class JsonValidator {
+    private static final StreamReadConstraints LIMITS = Json.MAPPER.getFactory().streamReadConstraints();
+    // from these powers of ten of its first digit on, the double of a number may be infinite (past 1.79e308) or zero
+    // (below 2.47e-324)
+    private static final int MAX_DOUBLE_MAGNITUDE = 308;
+    private static final int MIN_DOUBLE_MAGNITUDE = -324;
+    // larger exponents are past any double whatever the digits before them
+    private static final int MAX_EXPONENT = 100_000;
+
+    // the text is at(start) to at(end - 1)
+    final int start;
+    final int end;
+
+    private JsonValidator(int start, int end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    static boolean isValid(String text) {
+        return new OfString(text).scan();
+    }
+
+    /**
+     * Same as {@link #isValid(String)} for the UTF-8 encoded text in {@code utf8[offset, offset + length)}, which is
+     * checked to be well-formed inside strings as Jackson does (no other non-ASCII bytes are valid anyway).
+     */
+    static boolean isValid(byte[] utf8, int offset, int length) {
+        return new OfUtf8(utf8, offset, offset + length).scan();
+    }
+
+    /**
+     * Same as {@link #isValid(byte[], int, int)} for the bytes of utf8 from its position to its limit.
+     */
+    static boolean isValid(ByteBuffer utf8) {
+        if (utf8.hasArray()) {
+            return isValid(utf8.array(), utf8.arrayOffset() + utf8.position(), utf8.remaining());
+        }
+        return new OfBuffer(utf8).scan();
+    }
+
+    /**
+     * @return the character (or unsigned byte) at i
+     */
+    abstract int at(int i);
+
+    /**
+     * @return where the non-ASCII character starting at i in a string ends, or -1 when it isn't well-formed
+     */
+    abstract int nonAscii(int i);
+
+    /**
+     * @return how many chars of a Java string the character from i to next takes
+     */
+    abstract int charCount(int i, int next);
+
+    final boolean scan() {
+        int n = end;
+        int i = skipWhitespace(start);
+        if (i == n) {
+            return true;
+        }
+        // true for an object, false for an array
+        boolean[] stack = new boolean[16];
+        int depth = 0;
+        value:
+        while (true) {
+            if (i == n) {
+                return false;
+            }
+            int c = at(i);
+            if (c == '{' || c == '[') {
+                boolean object = c == '{';
+                if (depth == LIMITS.getMaxNestingDepth()) {
+                    return false;
+                }
+                i = skipWhitespace(i + 1);
+                if (i < n && at(i) == (object ? '}' : ']')) {
+                    i++;
+                } else {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = object;
+                    if (object && (i = member(i)) < 0) {
+                        return false;
+                    }
+                    continue;
+                }
+            } else if ((i = scalar(i, c)) < 0) {
+                return false;
+            }
+            // after a value: commas and closing brackets until the next value
+            while (true) {
+                i = skipWhitespace(i);
+                if (depth == 0) {
+                    return i == n;
+                }
+                if (i == n) {
+                    return false;
+                }
+                c = at(i);
+                boolean object = stack[depth - 1];
+                if (c == ',') {
+                    i = skipWhitespace(i + 1);
+                    if (object && (i = member(i)) < 0) {
+                        return false;
+                    }
+                    continue value;
+                }
+                if (c != (object ? '}' : ']')) {
+                    return false;
+                }
+                depth--;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * @return where the value of the member starting at i starts, or -1
+     */
+    private int member(int i) {
+        if (i == end || at(i) != '"' || (i = string(i)) < 0) {
+            return -1;
+        }
+        i = skipWhitespace(i);
+        if (i == end || at(i) != ':') {
+            return -1;
+        }
+        return skipWhitespace(i + 1);
+    }
+
+    /**
+     * @return the end of the string, number or literal starting with c at i, or -1
+     */
+    private int scalar(int i, int c) {
+        switch (c) {
+            case '"':
+                return string(i);
+            case 't':
+                return literal("true", i);
+            case 'f':
+                return literal("false", i);
+            case 'n':
+                return literal("null", i);
+            default:
+                return number(i);
+        }
+    }
+
+    private int literal(String literal, int i) {
+        if (i + literal.length() > end) {
+            return -1;
+        }
+        for (int k = 0; k < literal.length(); k++) {
+            if (at(i + k) != literal.charAt(k)) {
+                return -1;
+            }
+        }
+        return i + literal.length();
+    }
+
+    private int string(int i) {
+        int n = end;
+        int length = 0;
+        for (i++; i < n; i++, length++) {
+            int c = at(i);
+            if (c == '"') {
+                return length > LIMITS.getMaxStringLength() ? -1 : i + 1;
+            } else if (c < ' ') {
+                return -1;
+            } else if (c >= 0x80) {
+                int next = nonAscii(i);
+                if (next < 0) {
+                    return -1;
+                }
+                length += charCount(i, next) - 1;
+                i = next - 1;
+            } else if (c == '\\') {
+                if (++i == n) {
+                    return -1;
+                }
+                switch (at(i)) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                    case 'b':
+                    case 'f':
+                    case 'n':
+                    case 'r':
+                    case 't':
+                        break;
+                    case 'u':
+                        if (i + 4 >= n) {
+                            return -1;
+                        }
+                        for (int k = 1; k <= 4; k++) {
+                            if (!isHexDigit(at(i + k))) {
+                                return -1;
+                            }
+                        }
+                        i += 4;
+                        break;
+                    default:
+                        return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int number(int i) {
+        if (at(i) == '-') {
+            i++;
+        }
+        int start = i;
+        if (i < end && at(i) == '0') {
+            i++;
+        } else {
+            i = digits(i);
+        }
+        int digits = i - start;
+        if (digits == 0) {
+            return -1;
+        }
+        // the power of ten of the first significant digit, when there is one
+        int magnitude = at(start) != '0' ? digits - 1 : Integer.MIN_VALUE;
+        boolean decimal = false;
+        if (i < end && at(i) == '.') {
+            decimal = true;
+            int end = digits(i + 1);
+            if (end == i + 1) {
+                return -1;
+            }
+            for (int k = i + 1; k < end && magnitude == Integer.MIN_VALUE; k++) {
+                if (at(k) != '0') {
+                    magnitude = i - k;
+                }
+            }
+            digits += end - i - 1;
+            i = end;
+        }
+        if (i < end && (at(i) == 'e' || at(i) == 'E')) {
+            decimal = true;
+            i++;
+            boolean negative = i < end && at(i) == '-';
+            if (i < end && (at(i) == '+' || at(i) == '-')) {
+                i++;
+            }
+            int end = digits(i);
+            if (end == i) {
+                return -1;
+            }
+            int exponent = 0;
+            for (int k = i; k < end && exponent < MAX_EXPONENT; k++) {
+                exponent = exponent * 10 + at(k) - '0';
+            }
+            if (magnitude != Integer.MIN_VALUE) {
+                magnitude += negative ? -exponent : exponent;
+            }
+            digits += end - i;
+            i = end;
+        }
+        if (decimal && magnitude != Integer.MIN_VALUE && (magnitude >= MAX_DOUBLE_MAGNITUDE || magnitude <= MIN_DOUBLE_MAGNITUDE)) {
+            // a double of it may be infinite or zero, the repair keeps it as a BigDecimal instead (see NumberParser)
+            return -1;
+        }
+        // as Jackson counts them: the digits, without the sign, the point and the exponent's letter and sign
+        return digits > LIMITS.getMaxNumberLength() ? -1 : i;
+    }
+
+    private static boolean isHexDigit(int c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+
+    private int digits(int i) {
+        while (i < end && at(i) >= '0' && at(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private int skipWhitespace(int i) {
+        while (i < end) {
+            int c = at(i);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static final class OfString extends JsonValidator {
+        private final String text;
+
+        OfString(String text) {
+            super(0, text.length());
+            this.text = text;
+        }
+
+        @Override
+        int at(int i) {
+            return text.charAt(i);
+        }
+
+        @Override
+        int nonAscii(int i) {
+            return i + 1;
+        }
+
+        @Override
+        int charCount(int i, int next) {
+            return 1;
+        }
+    }
+
+    private static class OfUtf8 extends JsonValidator {
+        private final byte[] bytes;
+
+        OfUtf8(byte[] bytes, int start, int end) {
+            super(start, end);
+            this.bytes = bytes;
+        }
+
+        OfUtf8(int start, int end) {
+            super(start, end);
+            this.bytes = null;
+        }
+
+        @Override
+        int at(int i) {
+            return bytes[i] & 0xFF;
+        }
+
+        @Override
+        int nonAscii(int i) {
+            int c = at(i);
+            int continuations;
+            if ((c & 0xE0) == 0xC0) {
+                continuations = 1;
+            } else if ((c & 0xF0) == 0xE0) {
+                continuations = 2;
+            } else if ((c & 0xF8) == 0xF0) {
+                continuations = 3;
+            } else {
+                return -1;
+            }
+            if (i + continuations >= end) {
+                return -1;
+            }
+            for (int k = 1; k <= continuations; k++) {
+                if ((at(i + k) & 0xC0) != 0x80) {
+                    return -1;
+                }
+            }
+            return i + continuations + 1;
+        }
+
+        @Override
+        int charCount(int i, int next) {
+            // a surrogate pair for the 4 byte ones
+            return next - i == 4 ? 2 : 1;
+        }
+    }
+
+    private static final class OfBuffer extends OfUtf8 {
+        private final ByteBuffer buffer;
+
+        OfBuffer(ByteBuffer buffer) {
+            super(buffer.position(), buffer.limit());
+            this.buffer = buffer;
+        }
+
+        @Override
+        int at(int i) {
+            return buffer.get(i) & 0xFF;
+        }
+    }
+}
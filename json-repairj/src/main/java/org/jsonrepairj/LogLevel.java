@@ -0,0 +1,19 @@
+package org.jsonrepairj;
+
+/**
+ * How much of the fixes a repair records in {@link ParseResult#getLogger()}.
+ */
+public enum LogLevel {
+    /**
+     * Nothing is recorded
+     */
+    OFF,
+    /**
+     * Only the {@link FixCode} and the offset in the input of every fix, no text
+     */
+    CODES,
+    /**
+     * The code and offset, plus the text of the fix and the input around it
+     */
+    FULL
+}
@@ -0,0 +1,94 @@
+package org.jsonrepairj;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds plain java values: LinkedHashMap for objects, ArrayList for arrays, String, Number, Boolean and null.
+ * The result is null when there is no json.
+ */
+public class MapListBuilder implements NodeBuilder<Object> {
+    private final List<Object> stack = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final List<Object> roots = new ArrayList<>();
+
+    @Override
+    public void startObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        value(object);
+        stack.add(object);
+        keys.add(null);
+    }
+
+    @Override
+    public void key(String key) {
+        keys.set(keys.size() - 1, key);
+    }
+
+    @Override
+    public void endObject() {
+        end();
+    }
+
+    @Override
+    public void startArray() {
+        List<Object> array = new ArrayList<>();
+        value(array);
+        stack.add(array);
+        keys.add(null);
+    }
+
+    @Override
+    public void endArray() {
+        end();
+    }
+
+    @Override
+    public void stringValue(String value) {
+        value(value);
+    }
+
+    @Override
+    public void numberValue(Number value) {
+        value(value);
+    }
+
+    @Override
+    public void booleanValue(boolean value) {
+        value(value);
+    }
+
+    @Override
+    public void nullValue() {
+        value(null);
+    }
+
+    @Override
+    public Object build() {
+        if (roots.isEmpty()) {
+            return null;
+        }
+        return roots.size() == 1 ? roots.get(0) : roots;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void value(Object value) {
+        if (stack.isEmpty()) {
+            roots.add(value);
+            return;
+        }
+        Object parent = stack.get(stack.size() - 1);
+        if (parent instanceof Map) {
+            ((Map<String, Object>) parent).put(keys.get(keys.size() - 1), value);
+        } else {
+            ((List<Object>) parent).add(value);
+        }
+    }
+
+    private void end() {
+        stack.remove(stack.size() - 1);
+        keys.remove(keys.size() - 1);
+    }
+}
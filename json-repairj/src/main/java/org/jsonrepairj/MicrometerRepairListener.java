@@ -0,0 +1,81 @@
+package org.jsonrepairj;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.NonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the repairs as Micrometer meters in a registry:
+ * <ul>
+ * <li>jsonrepair.duration: a timer with a histogram, tagged outcome=valid for valid json read as it is and
+ * outcome=repaired for a repair, its count is how often each happens</li>
+ * <li>jsonrepair.input.size: the length of the inputs, by outcome</li>
+ * <li>jsonrepair.depth: how deep arrays and objects were nested in the repaired inputs</li>
+ * <li>jsonrepair.fixes: how many fixes were made, tagged with their {@link FixCode}</li>
+ * </ul>
+ * Micrometer is not a dependency of this library, it must be on the classpath to use this class.
+ */
+public class MicrometerRepairListener implements RepairListener {
+    private final Timer validJsonTimer;
+    private final Timer repairTimer;
+    private final DistributionSummary validJsonSize;
+    private final DistributionSummary repairSize;
+    private final DistributionSummary depth;
+    private final Map<FixCode, Counter> fixes = new EnumMap<>(FixCode.class);
+
+    public MicrometerRepairListener(@NonNull MeterRegistry registry) {
+        validJsonTimer = timer(registry, "valid");
+        repairTimer = timer(registry, "repaired");
+        validJsonSize = size(registry, "valid");
+        repairSize = size(registry, "repaired");
+        depth = DistributionSummary.builder("jsonrepair.depth")
+                .description("How deep arrays and objects were nested in the repaired json")
+                .register(registry);
+        // all registered up front, a fix is then counted without looking up its meter in the registry
+        for (FixCode code : FixCode.values()) {
+            fixes.put(code, Counter.builder("jsonrepair.fixes")
+                    .description("Fixes made by the repairs")
+                    .tag("code", code.name())
+                    .register(registry));
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder("jsonrepair.duration")
+                .description("Time to read valid json or repair broken json")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static DistributionSummary size(MeterRegistry registry, String outcome) {
+        return DistributionSummary.builder("jsonrepair.input.size")
+                .description("Length of the json read or repaired, in chars (bytes when read as UTF-8)")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public void validJson(int length, long nanos) {
+        validJsonTimer.record(nanos, TimeUnit.NANOSECONDS);
+        validJsonSize.record(length);
+    }
+
+    @Override
+    public void repaired(int length, long nanos, int maxDepth) {
+        repairTimer.record(nanos, TimeUnit.NANOSECONDS);
+        repairSize.record(length);
+        depth.record(maxDepth);
+    }
+
+    @Override
+    public void fixed(FixCode code) {
+        fixes.get(code).increment();
+    }
+}
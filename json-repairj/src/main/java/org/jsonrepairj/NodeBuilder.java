@@ -0,0 +1,43 @@
+package org.jsonrepairj;
+
+/**
+ * Builds the repaired json from the events of a repair, so that it can be repaired straight into the model the caller
+ * works with instead of a Jackson tree, see {@link JsonRepair#repairJson(String, NodeBuilder)}.
+ * <p>
+ * The events come in document order: a key before each value of an object, values between the start and end of their
+ * array or object. A key can be repeated in an object, the tree from {@link JsonRepair#parseJson(String, boolean, boolean)}
+ * keeps its last value (where the first one was). When the input holds several json values one after another, they
+ * all come at the top level and the result is expected to be an array of them.
+ *
+ * @param <T> the type of the result
+ */
+public interface NodeBuilder<T> {
+
+    void startObject();
+
+    void key(String key);
+
+    void endObject();
+
+    void startArray();
+
+    void endArray();
+
+    void stringValue(String value);
+
+    /**
+     * @param value an Integer, Long, Double, BigInteger or BigDecimal
+     */
+    void numberValue(Number value);
+
+    void booleanValue(boolean value);
+
+    void nullValue();
+
+    /**
+     * Called once after the last event.
+     *
+     * @return the top level value, an array of them if there were several, or an empty result if there was none
+     */
+    T build();
+}
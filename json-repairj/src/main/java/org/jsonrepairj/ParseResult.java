@@ -14,4 +14,26 @@ import java.util.List;
 public class ParseResult {
     JsonNode json;
     List<FixInfo> logger = new ArrayList<>();
+    // the limit of the RepairOptions the repair stopped at, null when the whole input was repaired
+    RepairLimit limit;
+
+    public ParseResult(JsonNode json, List<FixInfo> logger) {
+        this(json, logger, null);
+    }
+
+    /**
+     * @return how many fixes in the logger have the code, without making their FixInfo when it is a {@link FixLog}
+     */
+    public int countFixes(FixCode code) {
+        if (logger instanceof FixLog) {
+            return ((FixLog) logger).count(code);
+        }
+        int n = 0;
+        for (FixInfo fix : logger) {
+            if (fix.getCode() == code) {
+                n++;
+            }
+        }
+        return n;
+    }
 }
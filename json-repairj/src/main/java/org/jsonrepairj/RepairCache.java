@@ -0,0 +1,151 @@
+package org.jsonrepairj;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Same as the static methods of {@link JsonRepair}, but a text repaired before is not repaired again: LLMs often send
+ * the very same broken json again (retries, the same tool call), and looking it up only costs hashing and comparing it.
+ * <p>
+ * The cache holds the texts repaired last, as many as fit in its maximum weight, the weight of an entry being the
+ * length of its text (the repair being about as large). An entry is found by the text itself and the arguments of the
+ * repair, so that a hit returns exactly what a repair would. Every hit returns a copy of the cached result, which the
+ * caller can change at will. A repair that ran out of time is not cached, the same text may well be repaired in time
+ * the next time.
+ * <p>
+ * Thread safe, a text repaired by several threads at once may be repaired more than once.
+ */
+public class RepairCache {
+    private final Cache<Key, Object> cache;
+    private final ThreadLocal<JsonRepairer> repairers;
+
+    /**
+     * @param maximumWeight how many characters of text the cached repairs are for, in all
+     */
+    public RepairCache(long maximumWeight) {
+        this(maximumWeight, RepairOptions.DEFAULT);
+    }
+
+    /**
+     * @param maximumWeight how many characters of text the cached repairs are for, in all
+     * @param options       the limits of every repair, see {@link JsonRepairer#JsonRepairer(RepairOptions)}
+     */
+    public RepairCache(long maximumWeight, @NonNull RepairOptions options) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Key key, Object value) -> key.text.length())
+                .recordStats()
+                .build();
+        this.repairers = ThreadLocal.withInitial(() -> new JsonRepairer(options));
+    }
+
+    /**
+     * @see JsonRepair#parseJson(String, boolean, boolean)
+     */
+    public ParseResult parseJson(@NonNull String jsonStr, boolean skipJsonLoads, boolean streamStable) {
+        return parseJson(jsonStr, skipJsonLoads, streamStable, LogLevel.FULL);
+    }
+
+    /**
+     * @see JsonRepair#parseJson(String, boolean, boolean, LogLevel)
+     */
+    public ParseResult parseJson(@NonNull String jsonStr, boolean skipJsonLoads, boolean streamStable, @NonNull LogLevel logLevel) {
+        Key key = new Key(jsonStr, skipJsonLoads, streamStable, logLevel.ordinal());
+        ParseResult result = (ParseResult) cache.getIfPresent(key);
+        if (result == null) {
+            result = repairers.get().parseJson(jsonStr, skipJsonLoads, streamStable, logLevel);
+            if (result.getLimit() != RepairLimit.TIME) {
+                cache.put(key, result);
+            }
+        }
+        return copy(result);
+    }
+
+    /**
+     * @see JsonRepair#repairJson(String)
+     */
+    public String repairJson(@NonNull String jsonStr) {
+        // the text is cached, not the tree it is written from
+        Key key = new Key(jsonStr, false, false, Key.TEXT);
+        String repaired = (String) cache.getIfPresent(key);
+        if (repaired == null) {
+            ParseResult result = repairers.get().parseJson(jsonStr, false, false, LogLevel.OFF);
+            repaired = JsonRepair.toJsonString(result);
+            if (result.getLimit() != RepairLimit.TIME) {
+                cache.put(key, repaired);
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * @return the hits, misses (repairs) and evictions so far
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return how many repairs are cached
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static ParseResult copy(ParseResult result) {
+        List<FixInfo> logger;
+        if (result.getLogger() instanceof FixLog) {
+            logger = ((FixLog) result.getLogger()).copy();
+        } else {
+            logger = new ArrayList<>(result.getLogger().size());
+            for (FixInfo fix : result.getLogger()) {
+                logger.add(new FixInfo(fix.getText(), fix.getContext(), fix.getCode(), fix.getOffset(), fix.getStart(), fix.getEnd()));
+            }
+        }
+        return new ParseResult(result.getJson().deepCopy(), logger, result.getLimit());
+    }
+
+    private static final class Key {
+        // in place of a LogLevel, for the repaired text
+        static final int TEXT = -1;
+
+        final String text;
+        final boolean skipJsonLoads;
+        final boolean streamStable;
+        final int output;
+        final int hash;
+
+        Key(String text, boolean skipJsonLoads, boolean streamStable, int output) {
+            this.text = text;
+            this.skipJsonLoads = skipJsonLoads;
+            this.streamStable = streamStable;
+            this.output = output;
+            // String caches its hash, a text looked up again as the same instance is only hashed once
+            this.hash = ((text.hashCode() * 31 + output) * 2 + (skipJsonLoads ? 1 : 0)) * 2 + (streamStable ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && skipJsonLoads == other.skipJsonLoads && streamStable == other.streamStable
+                    && output == other.output && text.equals(other.text);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.jsonrepairj;
+
+/**
+ * A limit of {@link RepairOptions} a repair can reach.
+ */
+public enum RepairLimit {
+    /**
+     * {@link RepairOptions#getMaxInputLength()}
+     */
+    INPUT_LENGTH,
+    /**
+     * {@link RepairOptions#getMaxDepth()}
+     */
+    DEPTH,
+    /**
+     * {@link RepairOptions#getMaxNodes()}
+     */
+    NODES,
+    /**
+     * {@link RepairOptions#getMaxSteps()}
+     */
+    STEPS,
+    /**
+     * {@link RepairOptions#getTimeout()}
+     */
+    TIME
+}
@@ -0,0 +1,21 @@
+package org.jsonrepairj;
+
+import lombok.Getter;
+
+/**
+ * Thrown by a repair reaching a limit of {@link RepairOptions} that are {@link RepairOptions#isFailOnLimit()}.
+ */
+@Getter
+public class RepairLimitException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final RepairLimit limit;
+    // index in the input where the limit was reached
+    private final int offset;
+
+    public RepairLimitException(RepairLimit limit, int offset) {
+        super("Reached the " + limit + " limit of the repair at " + offset);
+        this.limit = limit;
+        this.offset = offset;
+    }
+}
@@ -0,0 +1,37 @@
+package org.jsonrepairj;
+
+/**
+ * Told what the repairs do, to count them: how often the input was valid json read as it is and how often it was
+ * repaired, how long that took, how large and deep the input was and which fixes were made. Set one in the
+ * {@link RepairOptions} of the repairs, {@link MicrometerRepairListener} records these as meters.
+ * <p>
+ * Called on the thread of the repair, so it must be thread safe and quick. Every method does nothing by default, and
+ * nothing is measured for {@link #NONE}.
+ */
+public interface RepairListener {
+    RepairListener NONE = new RepairListener() {
+    };
+
+    /**
+     * The input was valid json, read without repairing it.
+     *
+     * @param length of the input, in chars (bytes when read as UTF-8)
+     */
+    default void validJson(int length, long nanos) {
+    }
+
+    /**
+     * The input was repaired.
+     *
+     * @param length   of the input, in chars (bytes when read as UTF-8)
+     * @param maxDepth how deep arrays and objects were nested in it
+     */
+    default void repaired(int length, long nanos, int maxDepth) {
+    }
+
+    /**
+     * The parser made a fix, whatever the {@link LogLevel} of the repair.
+     */
+    default void fixed(FixCode code) {
+    }
+}
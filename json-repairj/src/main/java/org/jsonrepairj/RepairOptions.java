@@ -0,0 +1,79 @@
+package org.jsonrepairj;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.jsonrepairj.parser.JSONParser;
+
+import java.time.Duration;
+
+/**
+ * Limits on what a repair takes, so that no input, however large or broken, keeps a thread busy for long: the
+ * heuristics for strings look ahead and back, what a repair takes depends on the shape of the input as much as on its
+ * length.
+ * <p>
+ * When a limit is reached the repair either throws a {@link RepairLimitException} ({@link #isFailOnLimit()}) or goes on
+ * as if the input ended there, returning what it repaired so far with the limit in {@link ParseResult#getLimit()}.
+ * The default options have no limit but the depth. Valid json is read as it is (in linear time) unless the limits on
+ * its length, depth or nodes may apply, the budget of steps and time is for the parser.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class RepairOptions {
+    public static final RepairOptions DEFAULT = builder().build();
+
+    /**
+     * How many characters of the input are repaired.
+     */
+    @Builder.Default
+    private final int maxInputLength = Integer.MAX_VALUE;
+    /**
+     * How deep arrays and objects can be nested, one nested deeper is skipped and replaced with null (unless failing on
+     * limits). Jackson's limit by default, so that the repaired json can be read back.
+     */
+    @Builder.Default
+    private final int maxDepth = JSONParser.DEFAULT_MAX_DEPTH;
+    /**
+     * How many array elements and object members are repaired in all.
+     */
+    @Builder.Default
+    private final int maxNodes = Integer.MAX_VALUE;
+    /**
+     * How many times the parser can read a character of the input, the work of a repair whatever the machine.
+     */
+    @Builder.Default
+    private final long maxSteps = Long.MAX_VALUE;
+    /**
+     * How long a repair can take, from the start of the repair, null for no limit. The clock is read every few thousand
+     * steps.
+     */
+    private final Duration timeout;
+    /**
+     * Whether reaching a limit throws a {@link RepairLimitException} instead of returning the partial repair.
+     */
+    private final boolean failOnLimit;
+    /**
+     * What the json is expected to be, to repair it knowing its keys, null when unknown. Not a limit, but set with them
+     * to be used by every repair of a {@link JsonRepairer} or {@link RepairCache}.
+     */
+    private final RepairSchema schema;
+    /**
+     * The table the keys and the short string values repaired are interned in, null to allocate them every time. Not a
+     * limit either, a table shared by the repairs of the same kind of json keeps every repeated string once on the heap,
+     * however many repaired json hold it.
+     */
+    private final InternTable internTable;
+    /**
+     * Told about every repair made with these options and the fixes it makes, {@link RepairListener#NONE} by default.
+     * Not a limit either, set with them to be told about the repairs of a {@link JsonRepairer}, {@link RepairCache} (on
+     * a miss) or {@link StreamingJsonRepairer} as well as those of {@link JsonRepair}.
+     */
+    @Builder.Default
+    private final RepairListener listener = RepairListener.NONE;
+
+    /**
+     * @return whether the limits may apply to valid json, which is otherwise read as it is, without the parser
+     */
+    boolean limitsValidJson(int length) {
+        return length > maxInputLength || maxDepth < JSONParser.DEFAULT_MAX_DEPTH || maxNodes < Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,133 @@
+package org.jsonrepairj;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableMap;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jsonrepairj.parser.KeyTrie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.jsonrepairj.Json.MAPPER;
+
+/**
+ * The shape expected of the json to repair, e.g. the arguments of a tool an LLM was asked to call: the keys of its
+ * objects and the types of their values. A repair with a schema ({@link RepairOptions#getSchema()}) looks for the keys
+ * it knows right where a key is expected, instead of running the heuristics for strings on them:
+ * <ul>
+ * <li>a key of the schema is matched whatever its quotes, e.g. {@code {volume: "+", 'position": 1}}</li>
+ * <li>a string where a key is expected, followed by a comma instead of a colon, is dropped, e.g. the second "+" of
+ * {@code {"volume": "+", "+", "position": 1}}</li>
+ * <li>an unquoted string value starting with a digit stays a string, e.g. {@code {"code": 007}}</li>
+ * </ul>
+ * Any other key, and the json the schema doesn't describe, is repaired as it would be without a schema. Valid json is
+ * read as it is, whatever the schema.
+ * <p>
+ * Immutable and thread safe, a schema is best made once and used for every repair.
+ */
+@Getter
+public final class RepairSchema {
+    public enum Type {
+        // whatever the json, nothing is known about it
+        ANY,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        OBJECT,
+        ARRAY
+    }
+
+    public static final RepairSchema ANY = new RepairSchema(Type.ANY, ImmutableMap.of(), null);
+    public static final RepairSchema STRING = new RepairSchema(Type.STRING, ImmutableMap.of(), null);
+    public static final RepairSchema NUMBER = new RepairSchema(Type.NUMBER, ImmutableMap.of(), null);
+    public static final RepairSchema BOOLEAN = new RepairSchema(Type.BOOLEAN, ImmutableMap.of(), null);
+
+    private final Type type;
+    /**
+     * The schemas of the values of an object by key, empty for other types.
+     */
+    private final Map<String, RepairSchema> properties;
+    /**
+     * The schema of the elements of an array, null for other types.
+     */
+    private final RepairSchema items;
+    /**
+     * The keys of the properties, compiled for the parser.
+     */
+    private final KeyTrie keys;
+
+    private RepairSchema(Type type, ImmutableMap<String, RepairSchema> properties, RepairSchema items) {
+        this.type = type;
+        this.properties = properties;
+        this.items = items;
+        this.keys = new KeyTrie(properties.keySet());
+    }
+
+    /**
+     * An object with the given keys, each with the schema of its value.
+     */
+    public static RepairSchema object(@NonNull Map<String, RepairSchema> properties) {
+        return new RepairSchema(Type.OBJECT, ImmutableMap.copyOf(properties), null);
+    }
+
+    /**
+     * An array with elements of the given schema.
+     */
+    public static RepairSchema array(@NonNull RepairSchema items) {
+        return new RepairSchema(Type.ARRAY, ImmutableMap.of(), items);
+    }
+
+    /**
+     * The schema of a JSON Schema, as tools are declared to LLMs: its "type", the "properties" of an object and the
+     * "items" of an array, anything else is ignored. "integer" is a number, a schema without a type (or with several)
+     * is an object when it has properties, else any json.
+     */
+    public static RepairSchema fromJsonSchema(@NonNull JsonNode jsonSchema) {
+        JsonNode properties = jsonSchema.path("properties");
+        String type = jsonSchema.path("type").asText(properties.isObject() ? "object" : "");
+        switch (type) {
+            case "string":
+                return STRING;
+            case "number":
+            case "integer":
+                return NUMBER;
+            case "boolean":
+                return BOOLEAN;
+            case "array":
+                JsonNode items = jsonSchema.path("items");
+                return array(items.isObject() ? fromJsonSchema(items) : ANY);
+            case "object":
+                ImmutableMap.Builder<String, RepairSchema> builder = ImmutableMap.builder();
+                for (Iterator<Map.Entry<String, JsonNode>> it = properties.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> property = it.next();
+                    builder.put(property.getKey(), fromJsonSchema(property.getValue()));
+                }
+                return new RepairSchema(Type.OBJECT, builder.build(), null);
+            default:
+                return ANY;
+        }
+    }
+
+    /**
+     * Same as {@link #fromJsonSchema(JsonNode)} for the text of a JSON Schema.
+     *
+     * @throws UncheckedIOException when jsonSchema isn't valid json
+     */
+    public static RepairSchema fromJsonSchema(@NonNull String jsonSchema) {
+        try {
+            return fromJsonSchema(MAPPER.readTree(jsonSchema));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the schema of the value of key in an object, null when the key isn't known
+     */
+    public RepairSchema property(String key) {
+        return properties.get(key);
+    }
+}
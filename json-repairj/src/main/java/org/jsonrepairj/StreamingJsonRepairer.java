@@ -0,0 +1,59 @@
+package org.jsonrepairj;
+
+import lombok.NonNull;
+import org.jsonrepairj.parser.JSONParser;
+
+/**
+ * Repairs json that arrives in pieces, e.g. token by token from an LLM, and hands out the repaired json at any moment.
+ * <p>
+ * {@link #append(CharSequence)} appends the chunk to the text. {@link #getResult()} repairs everything received so far
+ * and returns exactly what {@code JsonRepair.parseJson(text, true, true)} returns for it, but the repair goes on from
+ * where the previous one could no longer be sure of the text (the arrays, objects and values still open then) instead
+ * of from the start, so a repair after each token costs the new text and the value it ends in, not the whole text.
+ * <p>
+ * Returned trees share what they have in common with each other, treat them as read-only: a tree doesn't change
+ * when more text is appended, and a change made to one through Jackson shows in the others sharing the node.
+ * Not thread safe.
+ */
+public class StreamingJsonRepairer {
+    private final JSONParser parser = new JSONParser("", true);
+    private int length;
+    private ParseResult result;
+
+    public StreamingJsonRepairer() {
+        this(RepairOptions.DEFAULT);
+    }
+
+    /**
+     * @param options the limits of each repair, the budget of steps and time is that of a repair from the previous one
+     */
+    public StreamingJsonRepairer(@NonNull RepairOptions options) {
+        parser.setOptions(options);
+    }
+
+    public StreamingJsonRepairer append(@NonNull CharSequence chunk) {
+        if (chunk.length() > 0) {
+            parser.append(chunk);
+            length += chunk.length();
+            result = null;
+        }
+        return this;
+    }
+
+    /**
+     * @return the repair of all the text appended so far
+     */
+    public ParseResult getResult() {
+        if (result == null) {
+            RepairListener listener = parser.getOptions().getListener();
+            long startTime = JsonRepair.startTime(listener);
+            result = parser.parse();
+            JsonRepair.repaired(listener, parser, length, startTime);
+        }
+        return result;
+    }
+
+    public String getText() {
+        return parser.getJsonStr();
+    }
+}
@@ -0,0 +1,215 @@
+package org.jsonrepairj;
+
+import org.jsonrepairj.parser.SearchableText;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The characters of UTF-8 encoded bytes, decoded when they are read, so that a memory mapped file can be parsed
+ * without a copy of it on the heap.
+ * <p>
+ * The text is decoded a block of {@link #BLOCK} characters at a time, into one of a few windows: the parser mostly
+ * moves forward, reading here while its lookahead searches there, so a block is mostly decoded once. A block starts
+ * from its checkpoint, the first byte of its first character. Pure ASCII needs neither. A byte that doesn't belong to a
+ * well-formed sequence reads as U+FFFD.
+ */
+final class Utf8Text implements SearchableText {
+    private static final int BLOCK = 1024;
+    private static final int WINDOWS = 4;
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final ByteBuffer bytes;
+    private final int length;
+    // null for pure ASCII, where a char is a byte
+    private final long[] checkpoints;
+    // the blocks decoded last, one more char than a block as a surrogate pair can end it
+    private final char[][] windows = new char[WINDOWS][];
+    private final int[] windowBlocks = new int[WINDOWS];
+    private int nextWindow;
+    // the window read last, mostly the one read next
+    private int window;
+
+    /**
+     * @param bytes read from 0 to its limit, its position doesn't matter
+     */
+    Utf8Text(ByteBuffer bytes) {
+        this.bytes = bytes;
+        Arrays.fill(windowBlocks, -1);
+        int size = bytes.limit();
+        int nonAscii = 0;
+        while (nonAscii < size && bytes.get(nonAscii) >= 0) {
+            nonAscii++;
+        }
+        if (nonAscii == size) {
+            this.length = size;
+            this.checkpoints = null;
+            return;
+        }
+        // checkpoints[k] is the first byte of the code point holding char k * BLOCK, shifted left by one, the low bit
+        // set when that char is the second of a surrogate pair
+        long[] checkpoints = new long[size / BLOCK + 1];
+        int chars = 0;
+        for (int b = 0; b < size; ) {
+            int width = width(b);
+            int n = width == 4 ? 2 : 1;
+            int next = chars + n;
+            if (chars % BLOCK == 0) {
+                checkpoints[chars / BLOCK] = (long) b << 1;
+            } else if (next % BLOCK == 1 && n == 2) {
+                checkpoints[next / BLOCK] = (long) b << 1 | 1;
+            }
+            chars = next;
+            b += width;
+        }
+        this.length = chars;
+        this.checkpoints = Arrays.copyOf(checkpoints, chars / BLOCK + 1);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        if (checkpoints == null) {
+            return (char) bytes.get(index);
+        }
+        int block = index / BLOCK;
+        if (windowBlocks[window] != block) {
+            window = decode(block);
+        }
+        return windows[window][index - block * BLOCK];
+    }
+
+    /**
+     * Searches the decoded blocks rather than reading every char with charAt.
+     */
+    @Override
+    public int indexOf(char c, int from, int to) {
+        to = Math.min(to, length);
+        if (checkpoints == null) {
+            for (int i = from; i < to; i++) {
+                if (bytes.get(i) == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (int i = from; i < to; ) {
+            int block = i / BLOCK;
+            char[] chars = windows[decode(block)];
+            int start = block * BLOCK;
+            int end = Math.min(to, start + BLOCK);
+            for (; i < end; i++) {
+                if (chars[i - start] == c) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the window holding a block, decoded into the oldest one unless it is there
+     */
+    private int decode(int block) {
+        for (int k = 0; k < WINDOWS; k++) {
+            if (windowBlocks[k] == block) {
+                return k;
+            }
+        }
+        int w = nextWindow;
+        nextWindow = (nextWindow + 1) % WINDOWS;
+        if (windows[w] == null) {
+            windows[w] = new char[BLOCK + 1];
+        }
+        char[] chars = windows[w];
+        long checkpoint = checkpoints[block];
+        int b = (int) (checkpoint >>> 1);
+        int c = 0;
+        if ((checkpoint & 1) != 0) {
+            // the block starts with the second char of a surrogate pair
+            chars[c++] = Character.lowSurrogate(codePoint(b));
+            b += 4;
+        }
+        for (int end = Math.min(BLOCK, length - block * BLOCK); c < end; ) {
+            int lead = bytes.get(b);
+            if (lead >= 0) {
+                chars[c++] = (char) lead;
+                b++;
+                continue;
+            }
+            int width = width(b);
+            int codePoint = codePoint(b);
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                chars[c++] = (char) codePoint;
+            } else {
+                chars[c++] = Character.highSurrogate(codePoint);
+                chars[c++] = Character.lowSurrogate(codePoint);
+            }
+            b += width;
+        }
+        windowBlocks[w] = block;
+        return w;
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            sb.append(charAt(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+
+    /**
+     * @return how many bytes the code point starting at b takes, 1 for a byte that is not part of a well-formed one
+     */
+    private int width(int b) {
+        int lead = bytes.get(b) & 0xFF;
+        if (lead < 0x80) {
+            return 1;
+        }
+        int n = lead < 0xC2 ? 0 : lead < 0xE0 ? 2 : lead < 0xF0 ? 3 : lead < 0xF5 ? 4 : 0;
+        if (n == 0 || b + n > bytes.limit()) {
+            return 1;
+        }
+        // no overlong encodings, surrogates or code points past U+10FFFF
+        int second = bytes.get(b + 1) & 0xFF;
+        if (lead == 0xE0 && second < 0xA0 || lead == 0xED && second > 0x9F
+                || lead == 0xF0 && second < 0x90 || lead == 0xF4 && second > 0x8F) {
+            return 1;
+        }
+        for (int k = 1; k < n; k++) {
+            if ((bytes.get(b + k) & 0xC0) != 0x80) {
+                return 1;
+            }
+        }
+        return n;
+    }
+
+    private int codePoint(int b) {
+        int lead = bytes.get(b) & 0xFF;
+        switch (width(b)) {
+            case 2:
+                return (lead & 0x1F) << 6 | bytes.get(b + 1) & 0x3F;
+            case 3:
+                return (lead & 0x0F) << 12 | (bytes.get(b + 1) & 0x3F) << 6 | bytes.get(b + 2) & 0x3F;
+            case 4:
+                return (lead & 0x07) << 18 | (bytes.get(b + 1) & 0x3F) << 12 | (bytes.get(b + 2) & 0x3F) << 6
+                        | bytes.get(b + 3) & 0x3F;
+            default:
+                return lead < 0x80 ? lead : REPLACEMENT;
+        }
+    }
+}
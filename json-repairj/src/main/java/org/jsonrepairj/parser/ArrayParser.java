@@ -1,48 +1,128 @@
 package org.jsonrepairj.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
 import com.fasterxml.jackson.databind.node.TextNode;
-import org.jsonrepairj.Json;
+import org.jsonrepairj.FixCode;
 import org.jsonrepairj.ObjectComparer;
+import org.jsonrepairj.RepairSchema;
 import org.jsonrepairj.StringOps;
 
 import static org.jsonrepairj.Constants.END;
-import static org.jsonrepairj.Constants.STRING_DELIMITERS;
+import static org.jsonrepairj.Constants.isStringDelimiter;
 import static org.jsonrepairj.StringOps.notIn;
 
 public class ArrayParser implements NodeParser {
 
     @Override
     public JsonNode parse(JSONParser parser) {
-        // <array> ::= '[' [ <json> *(', ' <json>) ] ']' ; A sequence of JSON values separated by commas
-        ArrayNode array = Json.FACTORY.arrayNode();
-        parser.getContext().set(ContextValue.ARRAY);
-        // Stop when you either find the closing parentheses or you have iterated over the entire string
-        char ch = parser.getCharAt();
-        while (notIn(ch, END, ']', '}')) {
-            parser.skipWhitespacesAt();
-            JsonNode value;
-            if (STRING_DELIMITERS.contains(ch)) {
-                // Sometimes it can happen that LLMs forget to start an object and then you think it's a string in an array
-                // So we are going to check if this string is followed by a : or not
-                // And either parse the string or parse the object
-                int i = 1;
-                i = parser.skipToCharacter(ch, i);
-                i = parser.skipWhitespacesAt(i + 1, false);
-                value = (parser.getCharAt(i) == ':') ? parser.parseObject() : parser.parseString();
-            } else {
-                value = parser.parseJson();
+        return parser.run(frame(parser, null));
+    }
+
+    /**
+     * @param schema what the array is expected to be, null when unknown
+     */
+    static ParseFrame frame(JSONParser parser, RepairSchema schema) {
+        return parser.containerFrame(() -> new ArrayFrame(parser.getOutput().newArray(), items(schema)), true);
+    }
+
+    /**
+     * Parse the elements of an array into the given one, for merging arrays (at the depth of the given one, so never
+     * too deep)
+     */
+    static ParseFrame frame(Container into, RepairSchema schema) {
+        return new ArrayFrame(into, items(schema));
+    }
+
+    private static RepairSchema items(RepairSchema schema) {
+        return schema != null && schema.getType() == RepairSchema.Type.ARRAY ? schema.getItems() : null;
+    }
+
+    private static class ArrayFrame extends ParseFrame {
+        private final Container array;
+        // what the elements are expected to be, null when unknown
+        private final RepairSchema items;
+        private boolean started;
+        private char ch;
+
+        ArrayFrame(Container array, RepairSchema items) {
+            this.array = array;
+            this.items = items;
+        }
+
+        @Override
+        boolean isContainer() {
+            return true;
+        }
+
+        @Override
+        Container container() {
+            return array;
+        }
+
+        @Override
+        ParseFrame copy() {
+            ArrayFrame copy = new ArrayFrame(array, items);
+            copy.started = started;
+            copy.ch = ch;
+            return copy;
+        }
+
+        @Override
+        JsonNode resume(JSONParser parser, JsonNode nested) {
+            if (!started) {
+                // <array> ::= '[' [ <json> *(', ' <json>) ] ']' ; A sequence of JSON values separated by commas
+                parser.getContext().set(ContextValue.ARRAY);
+                ch = parser.getCharAt();
+                started = true;
+            } else if (nested != null) {
+                add(parser, nested);
+            }
+            // Stop when you either find the closing parentheses or you have iterated over the entire string
+            while (notIn(ch, END, ']', '}')) {
+                // resumed without a value, the frame goes on from here
+                parser.checkpoint();
+                parser.skipWhitespacesAt();
+                if (!parser.countNode()) {
+                    ch = parser.getCharAt();
+                    continue;
+                }
+                if (isStringDelimiter(ch)) {
+                    // Sometimes it can happen that LLMs forget to start an object and then you think it's a string in an array
+                    // So we are going to check if this string is followed by a : or not
+                    // And either parse the string or parse the object
+                    int i = 1;
+                    i = parser.skipToCharacter(ch, i);
+                    i = parser.skipWhitespacesAt(i + 1, false);
+                    if (parser.getCharAt(i) == ':') {
+                        parser.push(ObjectParser.frame(parser, false, items));
+                        return null;
+                    }
+                    add(parser, parser.parseString());
+                } else {
+                    parser.push(parser.valueFrame(items));
+                    return null;
+                }
             }
 
+            // Especially at the end of an LLM generated json you might miss the last "]"
+            if (notIn(ch, END, ']', '}')) {
+                parser._log(FixCode.MISSING_ARRAY_CLOSE);
+            }
+
+            parser.shift();
+            parser.getContext().reset();
+            return parser.getOutput().end(array);
+        }
+
+        private void add(JSONParser parser, JsonNode value) {
             // It is possible that parseJson() returns nothing valid, so we increase by 1
             if (ObjectComparer.isStrictlyEmpty(value)) {
                 parser.shift();
             } else if (value instanceof TextNode && value.textValue().equals("...") && parser.getCharAt(-1) == '.') {
-                parser._log("While parsing an array, found a stray '...'; ignoring it");
+                parser._log(FixCode.STRAY_ELLIPSIS_IN_ARRAY);
             } else if (!(value instanceof MissingNode)) { //skip comments
-                array.add(value);
+                parser.getOutput().add(array, value);
             }
 
             // skip over whitespace after a value but before closing ]
@@ -52,15 +132,6 @@ public class ArrayParser implements NodeParser {
                 ch = parser.getCharAt();
             }
         }
-
-        // Especially at the end of an LLM generated json you might miss the last "]"
-        if (notIn(ch, END, ']', '}')) {
-            parser._log("While parsing an array we missed the closing ], ignoring it");
-        }
-
-        parser.shift();
-        parser.getContext().reset();
-        return array;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,248 @@
+package org.jsonrepairj.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import org.jsonrepairj.Json;
+import org.jsonrepairj.NodeBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Passes arrays and objects to a {@link NodeBuilder} while they are parsed, the containers handed to the parsers don't
+ * keep anything but what the parsers ask about them.
+ * <p>
+ * The tree would drop the empty elements of an array (see ArrayParser), so those start only once they are known to be
+ * non-empty, and the array value of an object member is ended only on the next event, for ObjectParser may still
+ * merge another array into it. A key repeated in an object is passed again (the tree keeps the last value).
+ */
+class BuilderOutput extends NodeOutput {
+    private final NodeBuilder<?> builder;
+    // innermost container not ended yet
+    private Written current;
+    // an array whose ']' is held back, see reopen()
+    private Written pendingEnd;
+
+    BuilderOutput(NodeBuilder<?> builder) {
+        this.builder = builder;
+    }
+
+    @Override
+    Container newArray() {
+        Written array = new Written(current, true);
+        begin(array);
+        return array;
+    }
+
+    @Override
+    Container newObject() {
+        Written object = new Written(current, false);
+        begin(object);
+        return object;
+    }
+
+    @Override
+    void add(Container array, JsonNode value) {
+        Written container = (Written) array;
+        container.size++;
+        write(container, value);
+    }
+
+    @Override
+    void key(Container object, String key) {
+        start((Written) object);
+        builder.key(key);
+    }
+
+    @Override
+    void set(Container object, String key, JsonNode value) {
+        Written container = (Written) object;
+        container.keys.add(key);
+        container.size = container.keys.size();
+        container.lastValue = value;
+        write(container, value);
+    }
+
+    /**
+     * Only the value of the key set last is known, it is an array written already.
+     */
+    @Override
+    Container reopen(Container object, String key) {
+        Written array = written(((Written) object).lastValue);
+        if (array == null || !array.array) {
+            return null;
+        }
+        if (pendingEnd != array) {
+            throw new IllegalStateException("Only the array written last can be reopened");
+        }
+        pendingEnd = null;
+        current = array;
+        return array;
+    }
+
+    /**
+     * @return for a container passed while it was parsed, a value that stands for it (and is then left out), an empty
+     * one for an empty element of an array
+     */
+    @Override
+    JsonNode end(Container node) {
+        Written container = (Written) node;
+        current = container.parent;
+        if (!container.started) {
+            // an empty element of an array, left out
+            return container.array ? Json.FACTORY.arrayNode() : Json.FACTORY.objectNode();
+        }
+        endPending();
+        if (container.array && container.parent != null && !container.parent.array) {
+            pendingEnd = container;
+        } else if (container.array) {
+            builder.endArray();
+        } else {
+            builder.endObject();
+        }
+        return container.value;
+    }
+
+    /**
+     * Pass a top level value, arrays and objects are passed while they are parsed so only the others are left.
+     */
+    void root(JsonNode value) {
+        write(null, value);
+    }
+
+    /**
+     * Pass what is still held back.
+     */
+    void finish() {
+        endPending();
+    }
+
+    private void begin(Written container) {
+        current = container;
+        if (container.parent == null || !container.parent.array) {
+            start(container);
+        }
+    }
+
+    /**
+     * Start container and the enclosing ones not started yet, outermost first.
+     */
+    private void start(Written container) {
+        endPending();
+        if (container.started) {
+            return;
+        }
+        List<Written> notStarted = new ArrayList<>();
+        for (Written c = container; c != null && !c.started; c = c.parent) {
+            notStarted.add(c);
+        }
+        for (int k = notStarted.size() - 1; k >= 0; k--) {
+            Written c = notStarted.get(k);
+            if (c.array) {
+                builder.startArray();
+            } else {
+                builder.startObject();
+            }
+            c.started = true;
+        }
+    }
+
+    private void endPending() {
+        if (pendingEnd != null) {
+            pendingEnd = null;
+            builder.endArray();
+        }
+    }
+
+    private void write(Written container, JsonNode value) {
+        if (written(value) != null) {
+            // passed while it was parsed
+            return;
+        }
+        if (container != null) {
+            start(container);
+        } else {
+            endPending();
+        }
+        emit(value);
+    }
+
+    private void emit(JsonNode value) {
+        switch (value.getNodeType()) {
+            case STRING:
+                builder.stringValue(value.textValue());
+                break;
+            case BOOLEAN:
+                builder.booleanValue(value.booleanValue());
+                break;
+            case NUMBER:
+                builder.numberValue(value.numberValue());
+                break;
+            case ARRAY:
+                builder.startArray();
+                for (JsonNode element : value) {
+                    emit(element);
+                }
+                builder.endArray();
+                break;
+            case OBJECT:
+                builder.startObject();
+                for (Iterator<Map.Entry<String, JsonNode>> it = value.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = it.next();
+                    builder.key(field.getKey());
+                    emit(field.getValue());
+                }
+                builder.endObject();
+                break;
+            default:
+                builder.nullValue();
+        }
+    }
+
+    /**
+     * @return the container value stands for, null when it is not one passed while it was parsed
+     */
+    private static Written written(JsonNode value) {
+        if (value instanceof POJONode && ((POJONode) value).getPojo() instanceof Written) {
+            return (Written) ((POJONode) value).getPojo();
+        }
+        return null;
+    }
+
+    /**
+     * A container passed to the builder, it keeps nothing but what the parsers ask about it.
+     */
+    private static class Written extends Container {
+        final Written parent;
+        final boolean array;
+        // its value in the enclosing container, which holds nothing as it is passed already
+        final JsonNode value = Json.FACTORY.pojoNode(this);
+        boolean started;
+        int size;
+        // objects only
+        Set<String> keys;
+        JsonNode lastValue;
+
+        Written(Written parent, boolean array) {
+            this.parent = parent;
+            this.array = array;
+            if (!array) {
+                this.keys = new HashSet<>();
+            }
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        boolean has(String key) {
+            return keys != null && keys.contains(key);
+        }
+    }
+}
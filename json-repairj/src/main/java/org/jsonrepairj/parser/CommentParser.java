@@ -1,9 +1,7 @@
 package org.jsonrepairj.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.google.common.collect.Lists;
-
-import java.util.List;
+import org.jsonrepairj.FixCode;
 
 import static org.jsonrepairj.Constants.END;
 import static org.jsonrepairj.Json.FACTORY;
@@ -23,73 +21,69 @@ public class CommentParser implements NodeParser {
          * The comment is skipped over and an empty string is returned so that comments do not interfere
          * with the actual JSON elements.
          */
-        char ch = parser.getCharAt();
-        List<Character> terminationCharacters = Lists.newArrayList('\n', '\r');
-        if (parser.getContext().contains(ARRAY)) {
-            terminationCharacters.add(']');
-        }
-        if (parser.getContext().contains(OBJECT_VALUE)) {
-            terminationCharacters.add('}');
-        }
-        if (parser.getContext().contains(OBJECT_KEY)) {
-            terminationCharacters.add(':');
+        skip(parser);
+        if (parser.getContext().isEmpty()) {
+            return parser.parseJson();
+        } else {
+            return FACTORY.missingNode();
         }
+    }
+
+    /**
+     * Skips the comment at the index, what parse() does but looking for the json after a top level one.
+     */
+    void skip(JSONParser parser) {
+        char ch = parser.getCharAt();
+        // what ends a line comment besides a new line
+        boolean inArray = parser.getContext().contains(ARRAY);
+        boolean inObjectValue = parser.getContext().contains(OBJECT_VALUE);
+        boolean inObjectKey = parser.getContext().contains(OBJECT_KEY);
         // Line comment starting with #
+        int commentStart = parser.getIndex();
         if (ch == '#') {
-            StringBuilder comment = new StringBuilder();
-            while (ch != END && !contains(terminationCharacters, ch)) {
-                comment.append(ch);
+            while (ch != END && !endsLineComment(ch, inArray, inObjectValue, inObjectKey)) {
                 parser.shift();
                 ch = parser.getCharAt();
             }
-            parser._log(String.format("Found line comment: %s, ignoring", comment));
+            parser._log(FixCode.LINE_COMMENT, commentStart);
         }
         // Comments starting with '/'
         else if (ch == '/') {
             char nextChar = parser.getCharAt(1);
             // Handle line comment starting with //
             if (nextChar == '/') {
-                StringBuilder comment = new StringBuilder("//");
                 parser.setIndex(parser.getIndex() + 2); // Skip both slashes.
                 ch = parser.getCharAt();
-                while (ch != END && !contains(terminationCharacters, ch)) {
-                    comment.append(ch);
+                while (ch != END && !endsLineComment(ch, inArray, inObjectValue, inObjectKey)) {
                     parser.shift();
                     ch = parser.getCharAt();
                 }
-                parser._log(String.format("Found line comment: %s, ignoring", comment));
+                parser._log(FixCode.LINE_COMMENT, commentStart);
             }
             // Handle block comment starting with /*
             else if (nextChar == '*') {
-                StringBuilder comment = new StringBuilder("/*");
                 parser.shift(2); // Skip '/*'
                 while (true) {
                     ch = parser.getCharAt();
                     if (ch == END) {
-                        parser._log("Reached end-of-string while parsing block comment; unclosed block comment.");
+                        parser._log(FixCode.UNCLOSED_BLOCK_COMMENT);
                         break;
                     }
-                    comment.append(ch);
                     parser.shift();
-                    if (comment.length() >= 2 && comment.charAt(comment.length() - 2) == '*' && comment.charAt(comment.length() - 1) == '/') {
+                    if (parser.getCharAt(-2) == '*' && parser.getCharAt(-1) == '/') {
                         break;
                     }
                 }
-                parser._log(String.format("Found block comment: %s, ignoring", comment));
+                parser._log(FixCode.BLOCK_COMMENT, commentStart);
             } else {
                 // Skip standalone '/' characters that are not part of a comment
                 // to avoid getting stuck in an infinite loop
                 parser.shift();
             }
         }
-        if (parser.getContext().isEmpty()) {
-            return parser.parseJson();
-        } else {
-            return FACTORY.missingNode();
-        }
     }
 
-    private static boolean contains(List<Character> array, char value) {
-        return array.contains(value);
+    private static boolean endsLineComment(char ch, boolean inArray, boolean inObjectValue, boolean inObjectKey) {
+        return ch == '\n' || ch == '\r' || (inArray && ch == ']') || (inObjectValue && ch == '}') || (inObjectKey && ch == ':');
     }
 }
\ No newline at end of file
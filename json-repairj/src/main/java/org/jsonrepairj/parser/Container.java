@@ -0,0 +1,20 @@
+package org.jsonrepairj.parser;
+
+/**
+ * An array or object being parsed, made by a {@link NodeOutput}: the parsers add to it through that output and only
+ * ask it what they need to repair, its value is what {@link NodeOutput#end(Container)} returns.
+ */
+abstract class Container {
+
+    /**
+     * @return how many elements or members it has
+     */
+    abstract int size();
+
+    /**
+     * @return whether an object has a member with key, false for an array
+     */
+    boolean has(String key) {
+        return false;
+    }
+}
@@ -3,31 +3,57 @@ package org.jsonrepairj.parser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
+import com.google.common.io.CharStreams;
 import lombok.Getter;
 import lombok.Setter;
 import org.jsonrepairj.Constants;
-import org.jsonrepairj.FixInfo;
+import org.jsonrepairj.FixCode;
+import org.jsonrepairj.FixLog;
 import org.jsonrepairj.Json;
+import org.jsonrepairj.LogLevel;
+import org.jsonrepairj.NodeBuilder;
 import org.jsonrepairj.ParseResult;
+import org.jsonrepairj.RepairLimit;
+import org.jsonrepairj.RepairLimitException;
+import org.jsonrepairj.RepairOptions;
+import org.jsonrepairj.RepairSchema;
 
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.jsonrepairj.Constants.END;
 import static org.jsonrepairj.StringOps.in;
 
 public class JSONParser {
+    public static final int DEFAULT_MAX_DEPTH = Json.MAPPER.getFactory().streamReadConstraints().getMaxNestingDepth();
+    // steps between two looks at the clock, when there is a timeout
+    private static final int CLOCK_STEPS = 4096;
+    // the largest buffer kept for the next string, see stringBuffer()
+    private static final int STRING_BUFFER_CAPACITY = 8192;
+
     private final ArrayParser array;
     private final BooleanNullParser booleanNull;
     private final NumberParser number;
     private final StringParser string;
     private final ObjectParser object;
     private final CommentParser comment;
-    @Getter
+    private CharSequence jsonStr;
+    // how much of jsonStr is parsed: all of it, unless the options cut it short
+    private int inputEnd;
+    private LookaheadIndex lookahead;
     @Setter
-    private String jsonStr;
     @Getter
     private boolean streamStable;
     @Setter
@@ -35,14 +61,60 @@ public class JSONParser {
     private int index;
     @Getter
     private JsonContext context;
-    private List<FixInfo> logger;
+    private FixLog logger;
+    private NodeOutput output = NodeOutput.TREE;
+    @Setter
+    @Getter
+    private LogLevel logLevel = LogLevel.FULL;
+    // characters virtually inserted in front of jsonStr[insertedAt], see insertCharacter()
+    private int insertedAt = -1;
+    private int insertedCount;
+    private char inserted;
+    // how many times the end of jsonStr was read, what was parsed without reading it won't change when text is appended
+    private int endReads;
+    // where parse() goes on from after append(), null until text is appended
+    private Checkpoint checkpoint;
+    // the values being parsed, innermost last, see run()
+    private final List<ParseFrame> frames = new ArrayList<>();
+    // how many runs are going on, one unless a node parser called back into the parser
+    private int runs;
+    // the frames below that one were not resumed since the last checkpoint
+    private int touched;
+    // how many of them are arrays or objects
+    private int depth;
+    // the most there were since the start, see startLimits()
+    @Getter
+    private int maxDepthReached;
+    @Getter
+    private RepairOptions options = RepairOptions.DEFAULT;
+    // the first limit of the options reached since the start, see startLimits()
+    private RepairLimit limitReached;
+    // whether a limit cut the input short
+    private boolean stopped;
+    private int nodes;
+    // characters read until checkBudget(), and the steps of the budget past those
+    private long stepsLeft;
+    private long stepsHeld;
+    private long deadline;
+    // the chars of the string being parsed, see stringBuffer()
+    private StringBuilder stringBuffer = new StringBuilder();
 
     public JSONParser(String jsonStr, boolean streamStable) {
+        this((CharSequence) jsonStr, streamStable);
+    }
+
+    /**
+     * Parse any text, e.g. a view of a memory mapped file: only the characters looked at are read, though some
+     * heuristics look far ahead.
+     */
+    public JSONParser(CharSequence jsonStr, boolean streamStable) {
         this.jsonStr = jsonStr != null ? jsonStr : "";
+        this.lookahead = new LookaheadIndex(this.jsonStr);
         this.streamStable = streamStable;
         this.index = 0;
         this.context = new JsonContext();
-        this.logger = new ArrayList<>();
+        this.logger = new FixLog(this.jsonStr);
+        startLimits();
 
         this.array = new ArrayParser();
         this.booleanNull = new BooleanNullParser();
@@ -52,14 +124,170 @@ public class JSONParser {
         this.comment = new CommentParser();
     }
 
+    public String getJsonStr() {
+        return jsonStr.toString();
+    }
+
+    NodeOutput getOutput() {
+        return output;
+    }
+
+    public void setJsonStr(String jsonStr) {
+        this.jsonStr = jsonStr;
+        this.lookahead = new LookaheadIndex(jsonStr);
+        this.logger = new FixLog(jsonStr);
+        this.checkpoint = null;
+        startLimits();
+    }
+
+    /**
+     * Sets the limits of the repair, the budget of steps and time starts over from here (and from every reset() or
+     * append()).
+     */
+    public void setOptions(RepairOptions options) {
+        this.options = options;
+        startLimits();
+    }
+
+    /**
+     * Start over on another input, keeping the node parsers and the buffers of the previous one.
+     * A parser can be reset any number of times, but is never used by two threads at once.
+     */
+    public void reset(String jsonStr) {
+        this.jsonStr = jsonStr != null ? jsonStr : "";
+        this.lookahead.reset(this.jsonStr);
+        this.index = 0;
+        this.context.clear();
+        // the previous ParseResult still holds the old one
+        this.logger = new FixLog(this.jsonStr);
+        this.insertedAt = -1;
+        this.insertedCount = 0;
+        this.checkpoint = null;
+        startLimits();
+    }
+
+    /**
+     * Start over at a position of the same input, as a new parser of the text from there would: the context, the log
+     * and the limits start over, what was found of the input is kept.
+     */
+    public void restart(int index) {
+        this.index = index;
+        this.context.clear();
+        this.logger = new FixLog(this.jsonStr);
+        this.insertedAt = -1;
+        this.insertedCount = 0;
+        this.checkpoint = null;
+        startLimits();
+        this.inputEnd = (int) Math.min(jsonStr.length(), (long) index + options.getMaxInputLength());
+    }
+
+    /**
+     * Append text to the input, so that {@link #parse()} repairs everything received so far.
+     * <p>
+     * From the first append on, the input is kept in a buffer the chunks are appended to, and parse() keeps the state
+     * of the repair (the frames being parsed, the context, the arrays and objects still open) at the last point where
+     * nothing parsed so far had read the end of the input: appending text cannot change anything parsed up to there,
+     * so the next parse() goes on from there rather than from the start. It returns exactly what a new parser over the
+     * whole input would, but a parse after each chunk costs the chunk and the value it ends in, not the whole input.
+     * <p>
+     * The other ways to parse start over from the start of the input after an append.
+     */
+    public void append(CharSequence chunk) {
+        if (checkpoint == null) {
+            StringBuilder text = new StringBuilder(jsonStr.length() + chunk.length()).append(jsonStr);
+            lookahead.extend(text, jsonStr.length());
+            jsonStr = text;
+            checkpoint = new Checkpoint();
+        }
+        int length = jsonStr.length();
+        ((StringBuilder) jsonStr).append(chunk);
+        lookahead.extend(jsonStr, length);
+        index = 0;
+        context.clear();
+        logger = new FixLog(jsonStr);
+        insertedAt = -1;
+        insertedCount = 0;
+        startLimits();
+    }
+
+    private void startLimits() {
+        inputEnd = Math.min(jsonStr.length(), options.getMaxInputLength());
+        limitReached = null;
+        stopped = false;
+        nodes = 0;
+        maxDepthReached = 0;
+        long steps = options.getMaxSteps();
+        if (options.getTimeout() != null) {
+            deadline = System.nanoTime() + options.getTimeout().toNanos();
+            stepsLeft = Math.min(steps, CLOCK_STEPS);
+        } else {
+            stepsLeft = steps;
+        }
+        stepsHeld = steps - stepsLeft;
+    }
+
+    /**
+     * Called when stepsLeft runs out: stops the repair if the budget of steps or time is spent, else gives more steps.
+     */
+    private void checkBudget() {
+        if (options.getTimeout() != null && System.nanoTime() - deadline >= 0) {
+            stop(RepairLimit.TIME, index);
+        } else if (stepsHeld == 0) {
+            stop(RepairLimit.STEPS, index);
+        } else {
+            stepsLeft = Math.min(stepsHeld, CLOCK_STEPS);
+            stepsHeld -= stepsLeft;
+        }
+    }
+
+    /**
+     * Throws if the options say so, else records the limit for the result.
+     */
+    private void reach(RepairLimit limit) {
+        if (options.isFailOnLimit()) {
+            throw new RepairLimitException(limit, index);
+        }
+        if (limitReached == null) {
+            limitReached = limit;
+        }
+    }
+
+    /**
+     * Reaches a limit that ends the repair: from position on, the parser sees the end of the input, closing whatever
+     * is open as it does for truncated json.
+     */
+    private void stop(RepairLimit limit, int position) {
+        reach(limit);
+        stopped = true;
+        inputEnd = Math.min(inputEnd, position);
+        stepsLeft = Long.MAX_VALUE;
+        _log(FixCode.LIMIT_REACHED);
+    }
+
+    /**
+     * Counts an array element or object member about to be parsed.
+     *
+     * @return false when there are more than the options allow, the repair is then stopped there
+     */
+    boolean countNode() {
+        if (++nodes <= options.getMaxNodes()) {
+            return true;
+        }
+        stop(RepairLimit.NODES, index);
+        return false;
+    }
+
     public ParseResult parse() {
+        if (checkpoint != null) {
+            return checkpoint.resume();
+        }
         JsonNode json = parseJson();
-        if (index < jsonStr.length()) {
-            _log("The parser returned early, checking if there's more json elements");
+        if (index < inputEnd) {
+            _log(FixCode.MORE_JSON_ELEMENTS);
             ArrayNode arrayNode = Json.FACTORY.arrayNode();
             arrayNode.add(json);
 
-            while (index < jsonStr.length()) {
+            while (index < inputEnd) {
                 JsonNode j = parseJson();
                 if (!(j instanceof MissingNode)) {
                     // not that necessary, just comment out
@@ -70,50 +298,496 @@ public class JSONParser {
                     arrayNode.add(j);
                 } else {
                     // this was a bust, move the index
-                    index += 1;
+                    shift();
                 }
             }
 
             // If nothing extra was found, don't return an array
             if (arrayNode.size() == 1) {
-                _log("There were no more elements, returning the element without the array");
+                _log(FixCode.NO_MORE_JSON_ELEMENTS);
             } else {
                 json = arrayNode;
             }
         }
-        return new ParseResult(json, logger);
+        return new ParseResult(json, logger, limitReached);
+    }
+
+    /**
+     * The values {@link #parse()} would return, one at a time: each top level value is parsed when the iterator gets
+     * to it, so a text of many concatenated values (a log) can be processed value by value instead of being held as
+     * one array. A text without any value gives none.
+     */
+    public Iterator<JsonNode> values() {
+        return new Iterator<JsonNode>() {
+            private JsonNode next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && index < inputEnd) {
+                    JsonNode json = parseJson();
+                    if (json instanceof MissingNode) {
+                        shift();
+                    } else {
+                        next = json;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public JsonNode next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                JsonNode json = next;
+                next = null;
+                return json;
+            }
+        };
+    }
+
+    /**
+     * Same as {@link #values()} as a sequential stream.
+     */
+    public Stream<JsonNode> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(values(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Same as {@link #parse()}, but the repaired json is written to out while it is parsed instead of being built as a
+     * tree, with the same text as serializing the result of parse(). Except when a key is repeated in an object: the
+     * tree keeps the last value (where the first one was), here every one of them is written.
+     */
+    public void parse(StringBuilder out) {
+        int start = out.length();
+        if (parse(CharStreams.asWriter(out)) > 1) {
+            out.insert(start, '[').append(']');
+        }
+    }
+
+    /**
+     * Same as {@link #parse(StringBuilder)} for any Appendable, which gets the json while it is repaired: when there are
+     * several top level values, the first one is held back until the next one shows up, for them to be written in an
+     * array. out is flushed when done if it is a Writer, not closed.
+     *
+     * @throws UncheckedIOException when out throws
+     */
+    public void parseTo(Appendable out) {
+        parse(new TextBuilder(out));
+    }
+
+    /**
+     * Same as {@link #parse(StringBuilder)}, for a large text whose repair is not to be held in memory: when there are
+     * several top level values they are written separated by commas, and it is up to the caller to put them in an
+     * array. out is flushed when done, not closed.
+     *
+     * @return how many top level values were written
+     */
+    public int parse(Writer out) {
+        return parse(new TextBuilder(out));
+    }
+
+    /**
+     * Same as {@link #parse()}, but the repaired json is passed to builder while it is parsed instead of being built as
+     * a Jackson tree.
+     *
+     * @return what builder built
+     */
+    public <T> T parse(NodeBuilder<T> builder) {
+        int values = 0;
+        BuilderOutput events = new BuilderOutput(builder);
+        output = events;
+        try {
+            JsonNode json = parseJson();
+            if (!(json instanceof MissingNode)) {
+                events.root(json);
+                values++;
+            }
+            if (index < inputEnd) {
+                _log(FixCode.MORE_JSON_ELEMENTS);
+                while (index < inputEnd) {
+                    JsonNode j = parseJson();
+                    if (!(j instanceof MissingNode)) {
+                        events.root(j);
+                        values++;
+                    } else {
+                        shift();
+                    }
+                }
+                if (values == 1) {
+                    _log(FixCode.NO_MORE_JSON_ELEMENTS);
+                }
+            }
+            events.finish();
+        } finally {
+            output = NodeOutput.TREE;
+        }
+        return builder.build();
     }
 
     public JsonNode parseJson() {
-        while (true) {
-            char ch = getCharAt();
-            // False means that we are at the end of the string provided
-            if (ch == END) {
-                return Json.MAPPER.missingNode();
+        return run(new ValueFrame(options.getSchema()));
+    }
+
+    /**
+     * Parses the value of frame, and the values nested in it on {@link #frames} rather than the Java stack.
+     */
+    JsonNode run(ParseFrame frame) {
+        int bottom = frames.size();
+        push(frame);
+        return run(bottom);
+    }
+
+    /**
+     * Resumes the frames above bottom until the one at bottom returns its value.
+     */
+    private JsonNode run(int bottom) {
+        runs++;
+        try {
+            JsonNode nested = null;
+            while (true) {
+                int top = frames.size() - 1;
+                touched = Math.min(touched, top);
+                JsonNode value = frames.get(top).resume(this, nested);
+                if (value == null) {
+                    nested = null;
+                    continue;
+                }
+                pop();
+                if (frames.size() == bottom) {
+                    return value;
+                }
+                nested = value;
             }
-            // <object> starts with '{'
-            else if (ch == '{') {
-                index += 1;
-                return parseObject();
+        } finally {
+            runs--;
+            while (frames.size() > bottom) {
+                pop();
             }
-            // <array> starts with '['
-            else if (ch == '[') {
-                index += 1;
-                return parseArray();
+        }
+    }
+
+    /**
+     * Called by the frame being resumed where, resumed again without a value, it would go on from: the state of the
+     * repair there is kept for {@link #append(CharSequence)} if nothing parsed so far has read the end of the input.
+     */
+    void checkpoint() {
+        if (checkpoint != null && endReads == 0 && runs == 1 && output == checkpoint.output) {
+            checkpoint.take();
+        }
+    }
+
+    /**
+     * Parse a nested value with frame, the frame pushing it is resumed with the value once it is parsed.
+     */
+    void push(ParseFrame frame) {
+        frames.add(frame);
+        if (frame.isContainer() && ++depth > maxDepthReached) {
+            maxDepthReached = depth;
+        }
+    }
+
+    private void pop() {
+        if (frames.remove(frames.size() - 1).isContainer()) {
+            depth--;
+        }
+    }
+
+    /**
+     * Parses a json value wherever one is expected, see {@link #parseJson()}.
+     *
+     * @param expected what the value is expected to be, null when unknown
+     */
+    ParseFrame valueFrame(RepairSchema expected) {
+        return new ValueFrame(expected);
+    }
+
+    /**
+     * @return the frame of an array or object starting at the index: create, unless it would be nested deeper than
+     * {@link RepairOptions#getMaxDepth()}, in which case it is skipped and stands as null
+     * @param opened whether its opening bracket was there (and shifted)
+     */
+    ParseFrame containerFrame(Supplier<ParseFrame> create, boolean opened) {
+        if (depth < options.getMaxDepth()) {
+            return create.get();
+        }
+        reach(RepairLimit.DEPTH);
+        return new ParseFrame() {
+            @Override
+            ParseFrame copy() {
+                return this;
             }
-            // <string> starts with a quote
-            else if (!context.isEmpty() && (Constants.STRING_DELIMITERS.contains(ch) || Character.isLetter(ch))) {
-                return parseString();
+
+            @Override
+            JsonNode resume(JSONParser parser, JsonNode nested) {
+                skipTooDeep(opened);
+                return Json.FACTORY.nullNode();
             }
-            // <number> starts with [0-9] or minus
-            else if (!context.isEmpty() && (Character.isDigit(ch) || ch == '-' || ch == '.')) {
-                return parseNumber();
-            } else if (in(ch, '#', '/')) {
-                return parseComment();
+        };
+    }
+
+    /**
+     * Skips an array or object: after its opening bracket, up to and including the bracket closing it; for an object
+     * missing its opening brace, up to the first bracket closing an enclosing one.
+     */
+    private void skipTooDeep(boolean opened) {
+        _log(FixCode.TOO_DEEP);
+        int open = 0;
+        for (char ch = getCharAt(); ch != END; ch = getCharAt()) {
+            if (ch == '"') {
+                // strings may hold brackets
+                shift();
+                for (ch = getCharAt(); ch != END && ch != '"'; ch = getCharAt()) {
+                    shift(ch == '\\' ? 2 : 1);
+                }
+            } else if (ch == '[' || ch == '{') {
+                open++;
+            } else if (ch == ']' || ch == '}') {
+                if (open == 0) {
+                    if (opened) {
+                        shift();
+                    }
+                    return;
+                }
+                open--;
+            }
+            shift();
+        }
+    }
+
+    /**
+     * The top level values of a repair that goes on after {@link #append(CharSequence)}, parsed as {@link #parse()}
+     * does.
+     */
+    private class TopFrame extends ParseFrame {
+        private final Container values;
+        private boolean more;
+
+        TopFrame(Container values) {
+            this.values = values;
+        }
+
+        @Override
+        Container container() {
+            return values;
+        }
+
+        @Override
+        ParseFrame copy() {
+            TopFrame copy = new TopFrame(values);
+            copy.more = more;
+            return copy;
+        }
+
+        @Override
+        JsonNode resume(JSONParser parser, JsonNode nested) {
+            if (nested == null) {
+                push(new ValueFrame(options.getSchema()));
+                return null;
+            }
+            if (!more) {
+                output.add(values, nested);
+                if (!hasMore()) {
+                    return output.end(values);
+                }
+                _log(FixCode.MORE_JSON_ELEMENTS);
+                more = true;
+            } else if (!(nested instanceof MissingNode)) {
+                output.add(values, nested);
+            } else {
+                // this was a bust, move the index
+                shift();
+            }
+            if (hasMore()) {
+                push(new ValueFrame(options.getSchema()));
+                return null;
+            }
+            // If nothing extra was found, don't return an array
+            if (values.size() == 1) {
+                _log(FixCode.NO_MORE_JSON_ELEMENTS);
+            }
+            return output.end(values);
+        }
+
+        private boolean hasMore() {
+            if (index < inputEnd) {
+                return true;
+            }
+            endReads++;
+            return false;
+        }
+    }
+
+    /**
+     * The state of the repair at the last point where nothing parsed had read the end of the input, see
+     * {@link #append(CharSequence)}: the frames, copied, and the arrays and objects they fill, kept by the output.
+     */
+    private class Checkpoint {
+        private final StreamOutput output = new StreamOutput();
+        // the fixes of the repair, those before logSize are never dropped
+        private final FixLog logs = new FixLog(jsonStr);
+        private ParseFrame[] saved = new ParseFrame[16];
+        private int savedSize;
+        private int index;
+        private byte[] context;
+        private int insertedAt = -1;
+        private int insertedCount;
+        private char inserted;
+        private int logSize;
+        private int nodes;
+        private int maxDepthReached;
+        private RepairLimit limitReached;
+
+        Checkpoint() {
+            saved[savedSize++] = new TopFrame(output.newArray());
+            context = new JsonContext().snapshot();
+        }
+
+        /**
+         * Keeps the current state, only the frames resumed since the last one are copied.
+         */
+        void take() {
+            int size = frames.size();
+            if (size > saved.length) {
+                saved = Arrays.copyOf(saved, Math.max(size, saved.length * 2));
+            }
+            for (int k = touched; k < size; k++) {
+                ParseFrame frame = frames.get(k);
+                saved[k] = frame.copy();
+                output.keep(frame.container());
+            }
+            if (size < savedSize) {
+                Arrays.fill(saved, size, savedSize, null);
+            }
+            savedSize = size;
+            // the frame taking the checkpoint goes on
+            touched = size - 1;
+            index = JSONParser.this.index;
+            context = JSONParser.this.context.snapshot();
+            insertedAt = JSONParser.this.insertedAt;
+            insertedCount = JSONParser.this.insertedCount;
+            inserted = JSONParser.this.inserted;
+            logSize = logs.size();
+            nodes = JSONParser.this.nodes;
+            maxDepthReached = JSONParser.this.maxDepthReached;
+            limitReached = JSONParser.this.limitReached;
+        }
+
+        /**
+         * Repairs the input from the checkpoint on.
+         */
+        ParseResult resume() {
+            startLimits();
+            restore();
+            endReads = 0;
+            NodeOutput before = JSONParser.this.output;
+            JSONParser.this.output = output;
+            JsonNode values;
+            try {
+                values = run(0);
+            } finally {
+                JSONParser.this.output = before;
+            }
+            // the containers still kept change with the next parse, the result holds frozen views of them
+            Map<JsonNode, JsonNode> frozen = new IdentityHashMap<>();
+            for (int k = savedSize - 1; k >= 0; k--) {
+                Container container = saved[k].container();
+                if (container != null) {
+                    output.freeze(container, frozen);
+                }
+            }
+            JsonNode json = values.size() == 1 ? values.get(0) : values;
+            return new ParseResult(frozen.getOrDefault(json, json), logs.view(logSize, jsonStr.length()), JSONParser.this.limitReached);
+        }
+
+        private void restore() {
+            frames.clear();
+            depth = 0;
+            for (int k = 0; k < savedSize; k++) {
+                ParseFrame frame = saved[k].copy();
+                frames.add(frame);
+                if (frame.isContainer()) {
+                    depth++;
+                }
+                output.rollback(frame.container());
+            }
+            touched = savedSize;
+            JSONParser.this.index = index;
+            JSONParser.this.context.restore(context);
+            JSONParser.this.insertedAt = insertedAt;
+            JSONParser.this.insertedCount = insertedCount;
+            JSONParser.this.inserted = inserted;
+            logs.subList(logSize, logs.size()).clear();
+            logger = logs;
+            JSONParser.this.nodes = nodes;
+            JSONParser.this.maxDepthReached = maxDepthReached;
+            JSONParser.this.limitReached = limitReached;
+        }
+    }
+
+    /**
+     * A top level value, an element of an array or the value of an object member.
+     */
+    private class ValueFrame extends ParseFrame {
+        private final RepairSchema expected;
+
+        ValueFrame(RepairSchema expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        ParseFrame copy() {
+            return this;
+        }
+
+        @Override
+        JsonNode resume(JSONParser parser, JsonNode nested) {
+            if (nested != null) {
+                return nested;
             }
-            // If everything else fails, we just ignore and move on
-            else {
-                index += 1;
+            checkpoint();
+            while (true) {
+                char ch = getCharAt();
+                // False means that we are at the end of the string provided
+                if (ch == END) {
+                    return Json.MAPPER.missingNode();
+                }
+                // <object> starts with '{'
+                else if (ch == '{') {
+                    shift();
+                    push(ObjectParser.frame(parser, true, expected));
+                    return null;
+                }
+                // <array> starts with '['
+                else if (ch == '[') {
+                    shift();
+                    push(ArrayParser.frame(parser, expected));
+                    return null;
+                }
+                // <string> starts with a quote
+                else if (!context.isEmpty() && (Constants.isStringDelimiter(ch) || Character.isLetter(ch))) {
+                    return parseString();
+                }
+                // <number> starts with [0-9] or minus
+                else if (!context.isEmpty() && (Character.isDigit(ch) || ch == '-' || ch == '.')) {
+                    // an unquoted string of the schema, e.g. a code or a date
+                    if (Character.isDigit(ch) && expected != null && expected.getType() == RepairSchema.Type.STRING) {
+                        return parseString();
+                    }
+                    return parseNumber();
+                } else if (in(ch, '#', '/')) {
+                    comment.skip(parser);
+                    // the value is whatever follows the comment at the top level, see CommentParser
+                    if (context.isEmpty()) {
+                        push(new ValueFrame(expected));
+                        return null;
+                    }
+                    return Json.MAPPER.missingNode();
+                }
+                // If everything else fails, we just ignore and move on
+                else {
+                    shift();
+                }
             }
         }
     }
@@ -122,21 +796,96 @@ public class JSONParser {
         return getCharAt(0);
     }
 
+    /**
+     * @return the input, for a parser to read again the characters it went over (between positions, as the index)
+     * without counting steps
+     */
+    CharSequence getInput() {
+        return jsonStr;
+    }
+
+    /**
+     * @return the buffer to accumulate the chars of a string in, empty: the string parser isn't reentrant, every string
+     * is parsed into the same buffer, unless a long one left it too large to be kept
+     */
+    StringBuilder stringBuffer() {
+        if (stringBuffer.capacity() > STRING_BUFFER_CAPACITY) {
+            stringBuffer = new StringBuilder();
+        }
+        stringBuffer.setLength(0);
+        return stringBuffer;
+    }
+
     public char getCharAt(int count) {
-        if (jsonStr.length() > index + count) {
-            return jsonStr.charAt(index + count);
+        if (--stepsLeft < 0) {
+            checkBudget();
+        }
+        if (count >= 0 && count >= insertedAt - index && count < insertedAt - index + insertedCount) {
+            return inserted;
+        }
+        int position = count < 0 ? index + count : toSource(count);
+        if (inputEnd > position) {
+            return jsonStr.charAt(position);
         } else {
+            if (!stopped && inputEnd < jsonStr.length()) {
+                stop(RepairLimit.INPUT_LENGTH, inputEnd);
+            }
+            endReads++;
             return END;
         }
     }
 
-    public void _log(String text) {
-        int window = 10;
-        int start = Math.max(index - window, 0);
-        int end = Math.min(index + window, jsonStr.length());
-        String contextStr = jsonStr.substring(start, end);
+    /**
+     * Makes the parser see {@code ch} right before {@code jsonStr[position]}, without touching jsonStr.
+     * The character is there until the parser shifts over it; inserting the same character at the same position again
+     * stacks it, inserting anywhere else replaces it.
+     * <p>
+     * The index always points into jsonStr, only the offsets passed to and returned by getCharAt, skipWhitespacesAt and
+     * skipToCharacter account for the inserted characters.
+     */
+    public void insertCharacter(int position, char ch) {
+        if (insertedCount > 0 && insertedAt == position && inserted == ch) {
+            insertedCount++;
+        } else {
+            insertedAt = position;
+            inserted = ch;
+            insertedCount = 1;
+        }
+    }
+
+    /**
+     * @return the position in jsonStr of the character idx places ahead (inserted characters map to the position after them)
+     */
+    private int toSource(int idx) {
+        if (insertedCount == 0 || index > insertedAt || idx < insertedAt - index) {
+            return index + idx;
+        }
+        return Math.max(insertedAt, index + idx - insertedCount);
+    }
+
+    /**
+     * @return how many places ahead of the index a position of jsonStr is
+     */
+    private int fromSource(int position) {
+        if (insertedCount == 0 || index > insertedAt || position < insertedAt) {
+            return position - index;
+        }
+        return position - index + insertedCount;
+    }
 
-        logger.add(new FixInfo(text, contextStr));
+    public void _log(FixCode code) {
+        _log(code, index);
+    }
+
+    /**
+     * @param detailStart where the part of the input filling the %s of the message starts, it ends at the index
+     */
+    public void _log(FixCode code, int detailStart) {
+        options.getListener().fixed(code);
+        if (logLevel == LogLevel.OFF) {
+            return;
+        }
+        logger.add(code, Math.min(detailStart, index), index, logLevel == LogLevel.FULL);
     }
 
     public JsonNode parseObject() {
@@ -168,21 +917,15 @@ public class JSONParser {
     }
 
     public int skipWhitespacesAt(int idx, boolean moveMainIndex) {
-        if (index + idx >= jsonStr.length()) {
-            return idx;
-        }
-        char ch = jsonStr.charAt(index + idx);
+        char ch = getCharAt(idx);
 
         while (Character.isWhitespace(ch)) {
             if (moveMainIndex) {
-                index += 1;
+                shift();
             } else {
                 idx += 1;
             }
-            if (index + idx >= jsonStr.length()) {
-                return idx;
-            }
-            ch = jsonStr.charAt(index + idx);
+            ch = getCharAt(idx);
         }
         return idx;
     }
@@ -192,40 +935,57 @@ public class JSONParser {
     }
 
     public int skipToCharacter(char character, int idx) {
-        return skipToCharacter(new char[]{character}, idx);
+        return lookup(lookahead.nextUnescaped(character, toSource(idx)), idx);
     }
 
     public int skipToCharacter(char[] characters, int idx) {
-        if (index + idx >= jsonStr.length()) {
-            return idx;
-        }
-        char ch = jsonStr.charAt(index + idx);
+        return lookup(lookahead.next(characters, toSource(idx), true), idx);
+    }
 
-        Set<Character> charSet = new HashSet<>();
-        for (char c : characters) {
-            charSet.add(c);
-        }
+    /**
+     * Like {@link #skipToCharacter(char, int)}, but escaped occurrences are not skipped.
+     */
+    public int scanToCharacter(char character, int idx) {
+        return lookup(lookahead.next(character, toSource(idx)), idx);
+    }
 
-        while (!charSet.contains(ch)) {
-            idx += 1;
-            if (index + idx >= jsonStr.length()) {
-                return idx;
-            }
-            ch = jsonStr.charAt(index + idx);
-        }
+    /**
+     * Like {@link #skipToCharacter(char[], int)}, but escaped occurrences are not skipped.
+     */
+    public int scanToCharacter(char[] characters, int idx) {
+        return lookup(lookahead.next(characters, toSource(idx), false), idx);
+    }
+
+    /**
+     * Starting from the delimiter at idx, skips delimiters two by two (each pair enclosing a quoted section) for as long
+     * as it lands on a delimiter, the same as calling {@code skipToCharacter({delimiter, closer}, i + 1)} twice in a loop.
+     *
+     * @return the offset of the closer it lands on, or past the end of the string when there is none
+     */
+    public int skipDelimiterPairs(char delimiter, char closer, int idx) {
+        return lookup(lookahead.pairedCloser(delimiter, closer, toSource(idx)), idx);
+    }
 
-        if (jsonStr.charAt(index + idx - 1) == '\\') {
-            // Ah shoot this was actually escaped, continue
-            return skipToCharacter(characters, idx + 1);
+    private int lookup(int position, int idx) {
+        if (position == -1 || position >= inputEnd) {
+            // not found, point past the end of the string so that getCharAt returns END: that is where the end is read,
+            // the heuristics only compare this offset with those found, which an append can only make larger
+            return Math.max(idx, fromSource(inputEnd));
         }
-        return idx;
+        return fromSource(position);
     }
 
     public void shift() {
-        this.index++;
+        shift(1);
     }
 
     public void shift(int i) {
+        if (insertedCount > 0 && i > insertedAt - index && index <= insertedAt) {
+            // the inserted characters are gone once passed
+            int passed = Math.min(insertedCount, i - (insertedAt - index));
+            insertedCount -= passed;
+            i -= passed;
+        }
         this.index += i;
     }
 
@@ -235,6 +995,8 @@ public class JSONParser {
 
     @Override
     public String toString() {
-        return String.format("[%d](%c) %s", index, getCharAt(), context);
+        // not getCharAt(), which counts as a step of the repair and may stop it
+        char ch = index >= 0 && index < inputEnd ? jsonStr.charAt(index) : END;
+        return String.format("[%d](%c) %s", index, ch, context);
     }
 }
\ No newline at end of file
@@ -1,18 +1,21 @@
 package org.jsonrepairj.parser;
 
-import lombok.Getter;
-
-import java.util.*;
+import java.util.Arrays;
 
+/**
+ * The stack of contexts the parser is in, innermost last. The string heuristics ask for it in their loops over the
+ * characters, so every query is O(1) and only set() allocates, when the stack outgrows its array.
+ */
 public class JsonContext {
-    private List<ContextValue> context;
-    @Getter
-    private ContextValue current;
+    private static final ContextValue[] VALUES = ContextValue.values();
 
-    public JsonContext() {
-        this.context = new ArrayList<>();
-        this.current = null;
-    }
+    // the ordinals of the context values, outermost first
+    private byte[] stack = new byte[16];
+    private int size;
+    // how many times each value is in context, for contains(): a value set and never reset (an object cut short by a
+    // duplicate key) stays in context, which can grow with the input
+    private final int[] counts = new int[VALUES.length];
+    private ContextValue current;
 
     /**
      * Set a new context value.
@@ -20,32 +23,74 @@ public class JsonContext {
      * @param value The context value to be added.
      */
     public void set(ContextValue value) {
-        context.add(value);
+        if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+        }
+        stack[size++] = (byte) value.ordinal();
+        counts[value.ordinal()]++;
         current = value;
     }
 
     /**
-     * Remove the most recent context value.
+     * Remove the most recent context value, if any.
      */
     public void reset() {
-        try {
-            context.remove(context.size() - 1);
-            current = context.isEmpty() ? null : context.get(context.size() - 1);
-        } catch (IndexOutOfBoundsException e) {
-            current = null;
+        if (size > 0) {
+            counts[stack[--size]]--;
         }
+        current = size == 0 ? null : VALUES[stack[size - 1]];
+    }
+
+    /**
+     * Remove all context values.
+     */
+    public void clear() {
+        size = 0;
+        Arrays.fill(counts, 0);
+        current = null;
+    }
+
+    /**
+     * @return the most recent context value, null when there is none
+     */
+    public ContextValue getCurrent() {
+        return current;
     }
 
     public boolean contains(ContextValue value) {
-        return context.contains(value);
+        return counts[value.ordinal()] > 0;
     }
 
     public boolean isEmpty() {
-        return this.context.isEmpty();
+        return size == 0;
+    }
+
+    /**
+     * @return a copy of the context values, outermost first, as ordinals
+     */
+    byte[] snapshot() {
+        return Arrays.copyOf(stack, size);
+    }
+
+    /**
+     * Replace the context values with a {@link #snapshot()}.
+     */
+    void restore(byte[] values) {
+        clear();
+        for (byte value : values) {
+            set(VALUES[value]);
+        }
     }
 
     @Override
     public String toString() {
-        return String.format("%s", context);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(VALUES[stack[i]]);
+        }
+        return sb.append(']').toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package org.jsonrepairj.parser;
+
+import org.jsonrepairj.FixCode;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.jsonrepairj.Constants.isStringDelimiter;
+
+/**
+ * The keys of an object of a {@link org.jsonrepairj.RepairSchema}, matched against the input char by char where the
+ * parser expects a key.
+ */
+public final class KeyTrie {
+    private final Node root = new Node();
+
+    public KeyTrie(Collection<String> keys) {
+        for (String key : keys) {
+            // an empty key is left to the string parser, which knows when it is one
+            if (!key.isEmpty()) {
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.add(key.charAt(i));
+                }
+                node.key = key;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return root.chars.length == 0;
+    }
+
+    /**
+     * Matches a key at the index: an opening quote or not, the longest key followed by a closing quote or not and, after
+     * whitespace, a ':'. The index is then moved past the key and its closing quote, on to the colon.
+     *
+     * @return the key matched, null when none is there
+     */
+    String match(JSONParser parser) {
+        int i = isStringDelimiter(parser.getCharAt()) ? 1 : 0;
+        boolean opened = i == 1;
+        String key = null;
+        int end = 0;
+        boolean misquoted = false;
+        for (Node node = root.child(parser.getCharAt(i)); node != null; node = node.child(parser.getCharAt(i))) {
+            i++;
+            if (node.key != null) {
+                int j = i;
+                boolean closed = isStringDelimiter(parser.getCharAt(j));
+                if (closed) {
+                    j++;
+                }
+                j = parser.skipWhitespacesAt(j, false);
+                if (parser.getCharAt(j) == ':') {
+                    key = node.key;
+                    end = closed ? i + 1 : i;
+                    misquoted = opened != closed;
+                }
+            }
+        }
+        if (key != null) {
+            int start = parser.getIndex();
+            parser.shift(end);
+            if (misquoted) {
+                parser._log(FixCode.MISQUOTED_SCHEMA_KEY, start);
+            }
+        }
+        return key;
+    }
+
+    private static final class Node {
+        private char[] chars = new char[0];
+        private Node[] children = new Node[0];
+        private String key;
+
+        Node child(char ch) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == ch) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node add(char ch) {
+            Node child = child(ch);
+            if (child == null) {
+                child = new Node();
+                chars = Arrays.copyOf(chars, chars.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                chars[chars.length - 1] = ch;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package org.jsonrepairj.parser;
+
+import java.util.Arrays;
+
+/**
+ * "Next occurrence" lookups over the text being repaired.
+ * <p>
+ * The string heuristics keep asking "where is the next quote / colon / brace from here?". Answering each of those with
+ * a linear scan makes a long string with many inner quotes or commas quadratic, so the positions of every character
+ * that is asked about are collected (once, as far as the queries reach) and every later query is a binary search.
+ * <p>
+ * Positions are only kept for a window of the text, which is all of it unless it is longer than {@link #WINDOW}
+ * characters (a mapped file): the window then moves to where the queries are, and an occurrence past its end is
+ * found by scanning, remembering the stretch found empty so that the same stretch is not scanned again.
+ */
+class LookaheadIndex {
+    static final int WINDOW = 1 << 20;
+    private static final int[] NONE = new int[0];
+
+    private final int window;
+    private CharSequence str;
+    // the window: positions are kept for [base, limit)
+    private int base;
+    private int limit;
+    // positions of each queried character (the first counts[k] slots of positions[k]) in [base, scanned[k]),
+    // in the order they were first asked for
+    private char[] keys = new char[8];
+    private int[][] positions = new int[8][];
+    private int[] counts = new int[8];
+    private int[] scanned = new int[8];
+    // past the window: no occurrence of keys[k] in [gapFrom[k], gapTo[k]), and one at gapTo[k] unless it is the end
+    private int[] gapFrom = new int[8];
+    private int[] gapTo = new int[8];
+    private int size;
+    // see pairedCloser()
+    private char pairDelimiter;
+    private char pairCloser;
+    private int[] pairPositions;
+    private int[] pairJumps;
+
+    LookaheadIndex(CharSequence str) {
+        this(str, WINDOW);
+    }
+
+    LookaheadIndex(CharSequence str, int window) {
+        this.window = window;
+        this.str = str;
+        this.limit = Math.min(str.length(), window);
+    }
+
+    /**
+     * Switch to another string, the buffers of the previous one are reused.
+     */
+    void reset(CharSequence str) {
+        this.str = str;
+        for (int k = 0; k < size; k++) {
+            counts[k] = 0;
+        }
+        size = 0;
+        base = 0;
+        limit = Math.min(str.length(), window);
+        pairPositions = null;
+        pairJumps = null;
+    }
+
+    /**
+     * Switch to a longer string starting with the current one, only the appended part is scanned.
+     *
+     * @param length the length of the current string, the longer one may be the same buffer appended to
+     */
+    void extend(CharSequence longer, int length) {
+        boolean whole = limit == length;
+        this.str = longer;
+        if (whole) {
+            limit = Math.min(longer.length(), base + window);
+        }
+        for (int k = 0; k < size; k++) {
+            gapFrom[k] = -1;
+            gapTo[k] = -1;
+        }
+        pairPositions = null;
+        pairJumps = null;
+    }
+
+    /**
+     * @return the first position {@code >= from} holding {@code c}, or -1
+     */
+    int next(char c, int from) {
+        if (!moveTo(from)) {
+            return -1;
+        }
+        int key = keyOf(c);
+        int k = lowerBound(key, from);
+        if (k < counts[key] || collect(key)) {
+            return positions[key][k];
+        }
+        return past(key, Math.max(from, limit));
+    }
+
+    /**
+     * Same as {@link #next(char, int)}, but occurrences right after a backslash are skipped.
+     */
+    int nextUnescaped(char c, int from) {
+        if (!moveTo(from)) {
+            return -1;
+        }
+        int key = keyOf(c);
+        for (int k = lowerBound(key, from); k < counts[key] || collect(key); k++) {
+            if (!isEscaped(positions[key][k])) {
+                return positions[key][k];
+            }
+        }
+        for (int p = past(key, Math.max(from, limit)); p != -1; p = past(key, p + 1)) {
+            if (!isEscaped(p)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first position {@code >= from} holding any of {@code characters}, or -1
+     */
+    int next(char[] characters, int from, boolean skipEscaped) {
+        int found = -1;
+        for (char c : characters) {
+            int p = skipEscaped ? nextUnescaped(c, from) : next(c, from);
+            if (p != -1 && (found == -1 || p < found)) {
+                found = p;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Takes the unescaped occurrences of {@code delimiter} and {@code closer} from {@code from} on, and walks them two at
+     * a time (a pair of delimiters being a quoted section) as long as it lands on a delimiter.
+     *
+     * @return the position of the first {@code closer} reached that way, or -1 when the walk runs off the end
+     */
+    int pairedCloser(char delimiter, char closer, int from) {
+        if (!moveTo(from)) {
+            return -1;
+        }
+        if (pairPositions == null || pairDelimiter != delimiter || pairCloser != closer) {
+            buildPairs(delimiter, closer);
+        }
+        int k = Arrays.binarySearch(pairPositions, from);
+        k = k >= 0 ? k : -(k + 1);
+        if (k < pairPositions.length && pairJumps[k] != -1) {
+            return pairPositions[pairJumps[k]];
+        }
+        if (limit == str.length()) {
+            return -1;
+        }
+        // the walk goes on past the window, landing on every other occurrence
+        boolean land = (pairPositions.length - k) % 2 == 0;
+        for (int p = Math.max(from, limit); ; p++, land = !land) {
+            int d = nextPast(keyOf(delimiter), p);
+            int c = nextPast(keyOf(closer), p);
+            p = d == -1 ? c : c == -1 ? d : Math.min(d, c);
+            if (p == -1) {
+                return -1;
+            }
+            if (land && p == c) {
+                return p;
+            }
+        }
+    }
+
+    private void buildPairs(char delimiter, char closer) {
+        int delimiterKey = keyOf(delimiter);
+        int closerKey = keyOf(closer);
+        collectAll(delimiterKey);
+        collectAll(closerKey);
+        int[] delimiters = positions[delimiterKey];
+        int[] closers = positions[closerKey];
+        int delimiterCount = counts[delimiterKey];
+        int closerCount = counts[closerKey];
+        int[] merged = new int[delimiterCount + closerCount];
+        int n = 0;
+        for (int d = 0, c = 0; d < delimiterCount || c < closerCount; ) {
+            int p = c == closerCount || d < delimiterCount && delimiters[d] < closers[c] ? delimiters[d++] : closers[c++];
+            if (!isEscaped(p)) {
+                merged[n++] = p;
+            }
+        }
+        // jumps[k] is the first index j >= k with the same parity as k holding a closer, filled back to front
+        int[] jumps = new int[n];
+        for (int k = n - 1; k >= 0; k--) {
+            if (str.charAt(merged[k]) == closer) {
+                jumps[k] = k;
+            } else {
+                jumps[k] = k + 2 < n ? jumps[k + 2] : -1;
+            }
+        }
+        this.pairDelimiter = delimiter;
+        this.pairCloser = closer;
+        this.pairPositions = n == merged.length ? merged : Arrays.copyOf(merged, n);
+        this.pairJumps = jumps;
+    }
+
+    /**
+     * Move the window so that it holds {@code from}.
+     *
+     * @return false when from is past the end of the string
+     */
+    private boolean moveTo(int from) {
+        if (from >= str.length()) {
+            return false;
+        }
+        if (from < base || from >= limit) {
+            base = from;
+            limit = (int) Math.min(str.length(), (long) from + window);
+            for (int k = 0; k < size; k++) {
+                counts[k] = 0;
+                scanned[k] = base;
+            }
+            pairPositions = null;
+            pairJumps = null;
+        }
+        return true;
+    }
+
+    private boolean isEscaped(int p) {
+        return p > 0 && str.charAt(p - 1) == '\\';
+    }
+
+    private int keyOf(char c) {
+        for (int k = 0; k < size; k++) {
+            if (keys[k] == c) {
+                return k;
+            }
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+            scanned = Arrays.copyOf(scanned, size * 2);
+            gapFrom = Arrays.copyOf(gapFrom, size * 2);
+            gapTo = Arrays.copyOf(gapTo, size * 2);
+        }
+        keys[size] = c;
+        if (positions[size] == null) {
+            positions[size] = NONE;
+        }
+        counts[size] = 0;
+        scanned[size] = base;
+        gapFrom[size] = -1;
+        gapTo[size] = -1;
+        return size++;
+    }
+
+    /**
+     * Add the next position of keys[key] in the window.
+     *
+     * @return false when there is none
+     */
+    private boolean collect(int key) {
+        int from = scanned[key];
+        if (from >= limit) {
+            return false;
+        }
+        int i = indexOf(keys[key], from, limit);
+        if (i == -1) {
+            scanned[key] = limit;
+            return false;
+        }
+        int count = counts[key];
+        if (count == positions[key].length) {
+            positions[key] = Arrays.copyOf(positions[key], Math.max(8, count * 2));
+        }
+        positions[key][count] = i;
+        counts[key] = count + 1;
+        scanned[key] = i + 1;
+        return true;
+    }
+
+    private void collectAll(int key) {
+        while (collect(key)) {
+        }
+    }
+
+    /**
+     * @return the first position {@code >= from} (which is past the window) holding keys[key], or -1
+     */
+    private int past(int key, int from) {
+        if (from >= str.length()) {
+            return -1;
+        }
+        if (gapFrom[key] == -1 || from < gapFrom[key] || from > gapTo[key]) {
+            int i = indexOf(keys[key], from, str.length());
+            gapFrom[key] = from;
+            gapTo[key] = i == -1 ? str.length() : i;
+        }
+        return gapTo[key] == str.length() ? -1 : gapTo[key];
+    }
+
+    /**
+     * @return the first unescaped position {@code >= from} (which is past the window) holding keys[key], or -1
+     */
+    private int nextPast(int key, int from) {
+        for (int p = past(key, from); p != -1; p = past(key, p + 1)) {
+            if (!isEscaped(p)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        if (to == str.length() && str instanceof String) {
+            return ((String) str).indexOf(c, from);
+        }
+        if (str instanceof SearchableText) {
+            return ((SearchableText) str).indexOf(c, from, to);
+        }
+        for (int i = from; i < to; i++) {
+            if (str.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first k with {@code positions[key][k] >= from}, collecting positions up to from first
+     */
+    private int lowerBound(int key, int from) {
+        while ((counts[key] == 0 || positions[key][counts[key] - 1] < from) && scanned[key] <= from && collect(key)) {
+        }
+        int k = Arrays.binarySearch(positions[key], 0, counts[key], from);
+        return k >= 0 ? k : -(k + 1);
+    }
+}
@@ -0,0 +1,83 @@
+package org.jsonrepairj.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jsonrepairj.Json;
+
+/**
+ * Where the parsers put the arrays and objects they build.
+ * <p>
+ * This one keeps them as a Jackson tree, {@link BuilderOutput} passes them to a NodeBuilder while they are parsed instead.
+ * The parsers only change containers through these methods, and only look at them through {@link Container}.
+ */
+class NodeOutput {
+    static final NodeOutput TREE = new NodeOutput();
+
+    Container newArray() {
+        return new Tree(Json.FACTORY.arrayNode(), null);
+    }
+
+    Container newObject() {
+        return new Tree(null, Json.FACTORY.objectNode());
+    }
+
+    void add(Container array, JsonNode value) {
+        ((Tree) array).array.add(value);
+    }
+
+    /**
+     * Called before parsing the value of key, which is then always passed to {@link #set(Container, String, JsonNode)}.
+     */
+    void key(Container object, String key) {
+    }
+
+    void set(Container object, String key, JsonNode value) {
+        ((Tree) object).object.set(key, value);
+    }
+
+    /**
+     * @param key the key of the member set last
+     * @return an array holding the elements of its value that more elements can be added to, the value itself is left
+     * as is; null when the value is not an array
+     */
+    Container reopen(Container object, String key) {
+        JsonNode value = ((Tree) object).object.get(key);
+        if (!value.isArray()) {
+            return null;
+        }
+        return new Tree(Json.FACTORY.arrayNode().addAll((ArrayNode) value), null);
+    }
+
+    /**
+     * Called once nothing more is added to a container returned by {@link #newArray()} or {@link #newObject()}
+     * (or {@link #reopen(Container, String)}).
+     *
+     * @return the value of the container, to add to the enclosing one
+     */
+    JsonNode end(Container container) {
+        Tree tree = (Tree) container;
+        return tree.array != null ? tree.array : tree.object;
+    }
+
+    private static class Tree extends Container {
+        // one of them, the other is null
+        private final ArrayNode array;
+        private final ObjectNode object;
+
+        Tree(ArrayNode array, ObjectNode object) {
+            this.array = array;
+            this.object = object;
+        }
+
+        @Override
+        int size() {
+            return array != null ? array.size() : object.size();
+        }
+
+        @Override
+        boolean has(String key) {
+            return object != null && object.has(key);
+        }
+    }
+}
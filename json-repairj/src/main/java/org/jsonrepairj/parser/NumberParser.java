@@ -1,49 +1,161 @@
 package org.jsonrepairj.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
 
 import static org.jsonrepairj.Constants.END;
-import static org.jsonrepairj.Constants.NUMBER_CHARS;
+import static org.jsonrepairj.Constants.isNumberChar;
 import static org.jsonrepairj.Json.FACTORY;
 import static org.jsonrepairj.StringOps.in;
-import static org.jsonrepairj.StringOps.last;
 
 public class NumberParser implements NodeParser {
+    // the most digits a long holds, whatever they are
+    private static final int LONG_DIGITS = 18;
+    // the most digits a double holds exactly, and the powers of ten it holds exactly: a number of those is one product
+    // or quotient away from its double, see readDouble()
+    private static final int EXACT_DOUBLE_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    // larger exponents are past any double, reading more of their digits can only overflow
+    private static final int MAX_EXPONENT = 100_000_000;
 
     @Override
     public JsonNode parse(JSONParser parser) {
         // <number> is a valid real number expressed in one of a number of given formats
-        StringBuilder number = new StringBuilder();
+        int start = parser.getIndex();
+        char last = END;
         char ch = parser.getCharAt();
         boolean isArray = parser.getCurrentContext() == ContextValue.ARRAY;
-        while (ch != END && NUMBER_CHARS.contains(ch) && (!isArray || ch != ',')) {
-            number.append(ch);
+        while (ch != END && isNumberChar(ch) && (!isArray || ch != ',')) {
+            last = ch;
             parser.shift();
             ch = parser.getCharAt();
         }
-        if (number.length() > 0 && in(last(number), '-', 'e', 'E', '/', ',')) {
+        // the parser only ever inserts a '{', the chars went over are those of the input from start
+        int end = parser.getIndex();
+        if (end > start && in(last, '-', 'e', 'E', '/', ',')) {
             // The number ends with a non valid character for a number/currency, rolling back one
-            number.setLength(number.length() - 1);
+            end--;
             parser.shift(-1);
         } else if (parser.getCharAt() != END && Character.isLetter(parser.getCharAt())) {
             // this was a string instead, sorry
-            parser.shift(- number.length());
+            parser.shift(start - end);
             return parser.parseString();
         }
-        if (number.length() == 0) {
+        if (end == start) {
             return FACTORY.missingNode();
-        } else if (number.indexOf(",") != -1) {
-            return FACTORY.textNode(number.toString());
         }
-        try {
-            if (number.indexOf(".") != -1 || number.indexOf("e") != -1 || number.indexOf("E") != -1) {
-                return FACTORY.numberNode(Double.parseDouble(number.toString()));
+        return number(parser.getInput(), start, end);
+    }
+
+    /**
+     * Reads the number from start to end of input as Jackson reads numbers, without copying it unless it is too large
+     * for a long or a double: an int, a long or a BigInteger for an integer, a double for a number with a fraction or an
+     * exponent, or the number as it is written (a BigDecimal) when the double would be infinite or zero although the
+     * number isn't.
+     *
+     * @return a text of the chars when they aren't a number, e.g. 1/3 or 10-20
+     */
+    static JsonNode number(CharSequence input, int start, int end) {
+        int i = start;
+        boolean negative = input.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        // the first significant digits, as many as a long holds, and the power of ten they are multiplied by
+        long significand = 0;
+        int scale = 0;
+        // the significant digits, those dropped from the significand included
+        int digits = 0;
+        int mantissaStart = i;
+        for (; i < end && isDigit(input.charAt(i)); i++) {
+            if (digits < LONG_DIGITS) {
+                significand = significand * 10 + input.charAt(i) - '0';
+                digits += significand > 0 ? 1 : 0;
             } else {
-                return FACTORY.numberNode(Long.parseLong(number.toString()));
+                digits++;
+                scale++;
+            }
+        }
+        boolean decimal = false;
+        if (i < end && input.charAt(i) == '.') {
+            decimal = true;
+            for (i++; i < end && isDigit(input.charAt(i)); i++) {
+                if (digits < LONG_DIGITS) {
+                    significand = significand * 10 + input.charAt(i) - '0';
+                    digits += significand > 0 ? 1 : 0;
+                    scale--;
+                } else {
+                    digits++;
+                }
+            }
+        }
+        if (i - mantissaStart == (decimal ? 1 : 0)) {
+            // no digit, e.g. "-" or "-."
+            return FACTORY.textNode(input.subSequence(start, end).toString());
+        }
+        int exponent = 0;
+        if (i < end && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+            decimal = true;
+            boolean negativeExponent = ++i < end && input.charAt(i) == '-';
+            if (negativeExponent) {
+                i++;
+            }
+            int exponentStart = i;
+            for (; i < end && isDigit(input.charAt(i)); i++) {
+                if (exponent < MAX_EXPONENT) {
+                    exponent = exponent * 10 + input.charAt(i) - '0';
+                }
+            }
+            if (i == exponentStart) {
+                return FACTORY.textNode(input.subSequence(start, end).toString());
             }
+            exponent = negativeExponent ? -exponent : exponent;
+        }
+        if (i < end) {
+            // e.g. a '/' or a second '-' or '.'
+            return FACTORY.textNode(input.subSequence(start, end).toString());
+        }
+
+        if (!decimal) {
+            if (digits <= LONG_DIGITS) {
+                long value = negative ? -significand : significand;
+                return value == (int) value ? FACTORY.numberNode((int) value) : FACTORY.numberNode(value);
+            }
+            BigInteger value = new BigInteger(input.subSequence(start, end).toString());
+            return value.bitLength() < Long.SIZE ? FACTORY.numberNode(value.longValue()) : FACTORY.numberNode(value);
+        }
+        return readDouble(input, start, end, negative, significand, digits, scale + exponent);
+    }
+
+    private static JsonNode readDouble(CharSequence input, int start, int end, boolean negative, long significand,
+                                       int digits, int exponent) {
+        if (significand == 0) {
+            return FACTORY.numberNode(negative ? -0.0 : 0.0);
+        }
+        if (digits <= EXACT_DOUBLE_DIGITS && Math.abs(exponent) < POWERS_OF_TEN.length) {
+            // both the significand and the power of ten are exact doubles, the one operation rounds as parseDouble() does
+            double value = exponent < 0 ? significand / POWERS_OF_TEN[-exponent] : significand * POWERS_OF_TEN[exponent];
+            return FACTORY.numberNode(negative ? -value : value);
+        }
+        String number = input.subSequence(start, end).toString();
+        double value = Double.parseDouble(number);
+        if (!Double.isInfinite(value) && value != 0) {
+            return FACTORY.numberNode(value);
+        }
+        try {
+            return DecimalNode.valueOf(new BigDecimal(number));
         } catch (NumberFormatException e) {
-            return FACTORY.textNode(number.toString());
+            // an exponent out of the range of BigDecimal
+            return FACTORY.textNode(number);
         }
     }
 
-}
\ No newline at end of file
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+}
@@ -1,140 +1,264 @@
 package org.jsonrepairj.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
-import com.google.common.collect.Lists;
 import org.jsonrepairj.Constants;
+import org.jsonrepairj.FixCode;
 import org.jsonrepairj.Json;
-
-import java.util.List;
+import org.jsonrepairj.RepairSchema;
 
 import static org.jsonrepairj.Constants.END;
+import static org.jsonrepairj.Constants.isStringDelimiter;
 import static org.jsonrepairj.StringOps.in;
 
 public class ObjectParser implements NodeParser {
 
     @Override
     public JsonNode parse(JSONParser parser) {
-        // <object> ::= '{' [ <member> *(', ' <member>) ] '}' ; A sequence of 'members'
-        ObjectNode obj = Json.FACTORY.objectNode();
-        List<String> keys = Lists.newArrayList();
-        // Stop when you either find the closing parentheses or you have iterated over the entire string
-        while (parser.getCharAt() != END && parser.getCharAt() != '}') {
-            // This is what we expect to find:
-            // <member> ::= <string> ': ' <json>
-
-            // Skip filler whitespaces
-            parser.skipWhitespacesAt();
+        return parser.run(frame(parser, true, null));
+    }
 
-            // Sometimes LLMs do weird things, if we find a ":" so early, we'll change it to "," and move on
-            if (parser.getCharAt() == ':') {
-                parser._log("While parsing an object we found a : before a key, ignoring");
-                parser.shift();
-            }
+    /**
+     * @param opened whether the opening brace was there (and shifted), it is sometimes missing in an array
+     * @param schema what the object is expected to be, null when unknown
+     */
+    static ParseFrame frame(JSONParser parser, boolean opened, RepairSchema schema) {
+        RepairSchema objectSchema = schema != null && schema.getType() == RepairSchema.Type.OBJECT ? schema : null;
+        return parser.containerFrame(() -> new ObjectFrame(parser.getOutput().newObject(), objectSchema), opened);
+    }
 
-            // We are now searching for they string key
-            // Context is used in the string parser to manage the lack of quotes
-            parser.getContext().set(ContextValue.OBJECT_KEY);
-
-            // Save this index in case we need find a duplicate key
-            int rollbackIndex = parser.getIndex();
-
-            // <member> starts with a <string>
-            String key = "";
-            while (parser.getCharAt() != END) {
-                // The rollback index needs to be updated here in case the key is empty
-                rollbackIndex = parser.getIndex();
-                if (parser.getCharAt() == '[' && key.equals("")) {
-                    // Is this an array?
-                    // Need to check if the previous parsed value contained in obj is an array and in that case parse and merge the two
-                    String prevKey = !keys.isEmpty() ? keys.get(keys.size() - 1) : null;
-                    if (prevKey != null && obj.get(prevKey).isArray()) {
-                        // If the previous key's value is an array, parse the new array and merge
-                        parser.shift();
-                        JsonNode newArray = parser.parseArray();
-                        if (newArray instanceof ArrayNode) {
-                            // Merge and flatten the arrays
-                            JsonNode prevValue = obj.get(prevKey);
-                            if (prevValue instanceof ArrayNode) {
-                                ((ArrayNode) prevValue).addAll((ArrayNode) newArray);
-                            }
-                            parser.skipWhitespacesAt();
-                            if (parser.getCharAt() == ',') {
+    private static class ObjectFrame extends ParseFrame {
+        // where resume() goes on from
+        private static final int MEMBER = 0;
+        private static final int KEY = 1;
+        private static final int MERGED = 2;
+        private static final int COLON = 3;
+        private static final int VALUE = 4;
+
+        private final Container obj;
+        // the keys and values expected, null when unknown
+        private final RepairSchema schema;
+        // the key of the last member set, null before the first
+        private String lastKey;
+        private int state = MEMBER;
+        private String key;
+        // Save this index in case we need find a duplicate key
+        private int rollbackIndex;
+
+        ObjectFrame(Container obj, RepairSchema schema) {
+            this.obj = obj;
+            this.schema = schema;
+        }
+
+        @Override
+        boolean isContainer() {
+            return true;
+        }
+
+        @Override
+        Container container() {
+            return obj;
+        }
+
+        @Override
+        ParseFrame copy() {
+            ObjectFrame copy = new ObjectFrame(obj, schema);
+            copy.lastKey = lastKey;
+            copy.state = state;
+            copy.key = key;
+            copy.rollbackIndex = rollbackIndex;
+            return copy;
+        }
+
+        @Override
+        JsonNode resume(JSONParser parser, JsonNode nested) {
+            // <object> ::= '{' [ <member> *(', ' <member>) ] '}' ; A sequence of 'members'
+            NodeOutput output = parser.getOutput();
+            while (true) {
+                switch (state) {
+                    case MEMBER:
+                        // resumed without a value, the frame goes on from here
+                        parser.checkpoint();
+                        // Stop when you either find the closing parentheses or you have iterated over the entire string
+                        if (parser.getCharAt() == END || parser.getCharAt() == '}') {
+                            return end(parser);
+                        }
+                        // This is what we expect to find:
+                        // <member> ::= <string> ': ' <json>
+
+                        // Skip filler whitespaces
+                        parser.skipWhitespacesAt();
+
+                        // Sometimes LLMs do weird things, if we find a ":" so early, we'll change it to "," and move on
+                        if (parser.getCharAt() == ':') {
+                            parser._log(FixCode.COLON_BEFORE_KEY);
+                            parser.shift();
+                        }
+
+                        // We are now searching for they string key
+                        // Context is used in the string parser to manage the lack of quotes
+                        parser.getContext().set(ContextValue.OBJECT_KEY);
+
+                        rollbackIndex = parser.getIndex();
+
+                        // <member> starts with a <string>
+                        key = "";
+                        state = KEY;
+                        break;
+                    case KEY:
+                        if (parser.getCharAt() == END) {
+                            state = COLON;
+                            break;
+                        }
+                        // The rollback index needs to be updated here in case the key is empty
+                        rollbackIndex = parser.getIndex();
+                        if (parser.getCharAt() == '[' && key.equals("")) {
+                            // Is this an array?
+                            // Need to check if the previous parsed value contained in obj is an array and in that case parse and merge the two
+                            String prevKey = lastKey;
+                            // Merge and flatten the arrays, into a copy as the previous value may be shared with an earlier repair of the same text
+                            Container merged = prevKey != null ? output.reopen(obj, prevKey) : null;
+                            if (merged != null) {
+                                // If the previous key's value is an array, parse the new array and merge
                                 parser.shift();
+                                parser.push(ArrayParser.frame(merged, valueSchema(prevKey)));
+                                state = MERGED;
+                                return null;
+                            }
+                        }
+                        if (schema != null) {
+                            // a key of the schema is read as it is, whatever its quotes
+                            String known = schema.getKeys().match(parser);
+                            if (known != null) {
+                                key = known;
+                                state = COLON;
+                                break;
                             }
+                            if (skipStrayString(parser)) {
+                                break;
+                            }
+                        }
+                        JsonNode keyNode = parser.parseString();
+                        if (keyNode instanceof TextNode) {
+                            key = keyNode.textValue();
+                        } else {
+                            key = "";
+                        }
+                        if (key.equals("")) {
                             parser.skipWhitespacesAt();
-                            continue;
                         }
-                    }
-                }
-                JsonNode keyNode = parser.parseString();
-                if (keyNode instanceof TextNode) {
-                    key = keyNode.textValue();
-                } else {
-                    key = "";
-                }
-                if (key.equals("")) {
-                    parser.skipWhitespacesAt();
-                }
-                if (!key.equals("") || (key.equals("") && (parser.getCharAt() == ':' || parser.getCharAt() == '}'))) {
-                    // If the string is empty but there is a object divider, we are done here
-                    break;
-                }
-            }
-            if (parser.getContext().contains(ContextValue.ARRAY) && obj.has(key)) {
-                parser._log("While parsing an object we found a duplicate key, closing the object here and rolling back the index");
-                parser.setIndex(rollbackIndex - 1);
-                // add an opening curly brace to make this work
-                String jsonStr = parser.getJsonStr();
-                jsonStr = jsonStr.substring(0, parser.getIndex() + 1) + "{" + jsonStr.substring(parser.getIndex() + 1);
-                parser.setJsonStr(jsonStr);
-                break;
-            }
+                        if (!key.equals("") || (key.equals("") && (parser.getCharAt() == ':' || parser.getCharAt() == '}'))) {
+                            // If the string is empty but there is a object divider, we are done here
+                            state = COLON;
+                        }
+                        break;
+                    case MERGED:
+                        output.set(obj, lastKey, nested);
+                        parser.skipWhitespacesAt();
+                        if (parser.getCharAt() == ',') {
+                            parser.shift();
+                        }
+                        parser.skipWhitespacesAt();
+                        state = KEY;
+                        break;
+                    case COLON:
+                        if (parser.getContext().contains(ContextValue.ARRAY) && obj.has(key)) {
+                            parser._log(FixCode.DUPLICATE_KEY);
+                            parser.setIndex(rollbackIndex - 1);
+                            // add an opening curly brace to make this work, the source string is left untouched
+                            parser.insertCharacter(rollbackIndex, '{');
+                            return end(parser);
+                        }
+                        if (!parser.countNode()) {
+                            state = MEMBER;
+                            break;
+                        }
 
-            // Skip filler whitespaces
-            parser.skipWhitespacesAt();
+                        // Skip filler whitespaces
+                        parser.skipWhitespacesAt();
 
-            // We reached the end here
-            if (in(parser.getCharAt(), END, '}')) {
-                continue;
-            }
+                        // We reached the end here
+                        if (in(parser.getCharAt(), END, '}')) {
+                            state = MEMBER;
+                            break;
+                        }
 
-            parser.skipWhitespacesAt();
+                        parser.skipWhitespacesAt();
 
-            // An extreme case of missing ":" after a key
-            if (parser.getCharAt() != ':') {
-                parser._log("While parsing an object we missed a : after a key");
-            }
+                        // An extreme case of missing ":" after a key
+                        if (parser.getCharAt() != ':') {
+                            parser._log(FixCode.MISSING_COLON);
+                        }
 
-            parser.shift();
-            parser.getContext().reset();
-            parser.getContext().set(ContextValue.OBJECT_VALUE);
-            // The value can be any valid json
-            parser.skipWhitespacesAt();
-            // Corner case, a lone comma
-            JsonNode value = Json.FACTORY.missingNode();
-            if (in(parser.getCharAt(), ',', '}')) {
-                parser._log("While parsing an object value we found a stray , ignoring it");
-            } else {
-                value = parser.parseJson();
-            }
+                        parser.shift();
+                        parser.getContext().reset();
+                        parser.getContext().set(ContextValue.OBJECT_VALUE);
+                        // The value can be any valid json
+                        parser.skipWhitespacesAt();
+                        output.key(obj, key);
+                        state = VALUE;
+                        // Corner case, a lone comma
+                        if (in(parser.getCharAt(), ',', '}')) {
+                            parser._log(FixCode.STRAY_COMMA_IN_OBJECT_VALUE);
+                            nested = Json.FACTORY.missingNode();
+                            break;
+                        }
+                        parser.push(parser.valueFrame(valueSchema(key)));
+                        return null;
+                    case VALUE:
+                        // Reset context since our job is done
+                        parser.getContext().reset();
+                        output.set(obj, key, nested);
+                        lastKey = key;
 
-            // Reset context since our job is done
-            parser.getContext().reset();
-            obj.set(key, value);
-            keys.add(key);
+                        if (in(parser.getCharAt(), END, ',', '\'', '"')) {
+                            parser.shift();
+                        }
 
-            if (in(parser.getCharAt(), END, ',', '\'', '"')) {
-                parser.shift();
+                        // Remove trailing spaces
+                        parser.skipWhitespacesAt();
+                        state = MEMBER;
+                        break;
+                    default:
+                        throw new IllegalStateException("state " + state);
+                }
             }
+        }
 
-            // Remove trailing spaces
+        private RepairSchema valueSchema(String key) {
+            return schema != null ? schema.property(key) : null;
+        }
+
+        /**
+         * Skips a quoted string where a key is expected when it is not followed by a colon but by a comma or the end of
+         * the object: an LLM repeating a value, or writing several where the schema has one.
+         *
+         * @return whether it was skipped, along with the comma
+         */
+        private boolean skipStrayString(JSONParser parser) {
+            char quote = parser.getCharAt();
+            if (!isStringDelimiter(quote)) {
+                return false;
+            }
+            int i = parser.skipToCharacter(quote == '“' ? '”' : quote, 1);
+            if (parser.getCharAt(i) == END) {
+                return false;
+            }
+            i = parser.skipWhitespacesAt(i + 1, false);
+            char next = parser.getCharAt(i);
+            if (next != ',' && next != '}') {
+                return false;
+            }
+            int start = parser.getIndex();
+            parser.shift(next == ',' ? i + 1 : i);
+            parser._log(FixCode.STRAY_STRING_IN_OBJECT, start);
             parser.skipWhitespacesAt();
+            return true;
         }
 
-        parser.shift();
-        return obj;
+        private JsonNode end(JSONParser parser) {
+            parser.shift();
+            return parser.getOutput().end(obj);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package org.jsonrepairj.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A value being parsed, as a step of {@link JSONParser#run(ParseFrame)}.
+ * <p>
+ * A value nested in an array or object is parsed by a frame of its own pushed on the parser's stack, instead of by a
+ * recursive call, so the depth of the input is not limited by the Java stack: a frame parses until it needs a nested
+ * value, pushes the frame that parses it and returns, and is resumed with that value once it is parsed.
+ */
+abstract class ParseFrame {
+
+    /**
+     * Goes on parsing.
+     *
+     * @param nested the value of the frame pushed last, null on the first call and when the frame goes on from a
+     * {@link JSONParser#checkpoint()}
+     * @return the value parsed, or null after pushing the frame of a nested value
+     */
+    abstract JsonNode resume(JSONParser parser, JsonNode nested);
+
+    /**
+     * @return whether this is an array or an object, which count for the maximum depth
+     */
+    boolean isContainer() {
+        return false;
+    }
+
+    /**
+     * @return the array or object this frame adds to, null when there is none
+     */
+    Container container() {
+        return null;
+    }
+
+    /**
+     * @return a frame that goes on from where this one is, for {@link JSONParser#append(CharSequence)} to go back to:
+     * the container is the same, the rest is a copy (this one when it has nothing else)
+     */
+    abstract ParseFrame copy();
+}
@@ -0,0 +1,13 @@
+package org.jsonrepairj.parser;
+
+/**
+ * A text that finds a char faster than a loop over {@link #charAt(int)} would, e.g. one decoded as it is read: the
+ * lookahead of the parser searches it through {@link #indexOf(char, int, int)}.
+ */
+public interface SearchableText extends CharSequence {
+
+    /**
+     * @return the first index in {@code [from, to)} holding c, or -1
+     */
+    int indexOf(char c, int from, int to);
+}
@@ -0,0 +1,592 @@
+package org.jsonrepairj.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jsonrepairj.Json;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * The output of a repair that goes on after text is appended, see {@link JSONParser#append(CharSequence)}.
+ * <p>
+ * The arrays and objects still open at a checkpoint of the repair are those it goes on with after an append, they are
+ * {@link #keep(Container) kept} as they are then and {@link #rollback(Container) rolled back} to it: what was added
+ * after the checkpoint is dropped, what was there is never changed, so it is shared rather than copied by the nodes
+ * handed out with {@link #freeze(Container, Map)}.
+ */
+class StreamOutput extends NodeOutput {
+    private static final JsonNode[] NO_NODES = new JsonNode[0];
+    private static final String[] NO_KEYS = new String[0];
+
+    @Override
+    Container newArray() {
+        return new StreamArray();
+    }
+
+    @Override
+    Container newObject() {
+        return new StreamObject();
+    }
+
+    @Override
+    void add(Container array, JsonNode value) {
+        ((StreamArray) array).elements.add(value);
+    }
+
+    @Override
+    void set(Container object, String key, JsonNode value) {
+        ((StreamObject) object).members.put(key, value);
+    }
+
+    @Override
+    Container reopen(Container object, String key) {
+        JsonNode value = ((StreamObject) object).members.get(key);
+        if (!value.isArray()) {
+            return null;
+        }
+        StreamArray array = new StreamArray();
+        for (JsonNode element : value) {
+            array.elements.add(element);
+        }
+        return array;
+    }
+
+    /**
+     * @return a node that holds what the container holds, and changes with it
+     */
+    @Override
+    JsonNode end(Container container) {
+        return container instanceof StreamArray ? ((StreamArray) container).node : ((StreamObject) container).node;
+    }
+
+    /**
+     * Keeps what a container holds now, {@link #rollback(Container)} goes back to it.
+     */
+    void keep(Container container) {
+        if (container instanceof StreamArray) {
+            Elements elements = ((StreamArray) container).elements;
+            elements.kept = elements.size;
+        } else if (container instanceof StreamObject) {
+            Members members = ((StreamObject) container).members;
+            members.kept = members.size;
+            members.keptValues = members.values;
+        }
+    }
+
+    /**
+     * Drops what was added to a container since it was kept, and puts back the values replaced.
+     */
+    void rollback(Container container) {
+        if (container instanceof StreamArray) {
+            Elements elements = ((StreamArray) container).elements;
+            elements.size = elements.kept;
+        } else if (container instanceof StreamObject) {
+            Members members = ((StreamObject) container).members;
+            for (int i = members.kept; i < members.size; i++) {
+                members.index.remove(members.keys[i]);
+            }
+            members.size = members.kept;
+            members.values = members.keptValues;
+        }
+    }
+
+    /**
+     * Puts in frozen, for the value of a kept container, a node holding what it holds now that doesn't change with it:
+     * what was there when it was kept is shared, what was added since is copied.
+     *
+     * @param frozen the nodes handed out for the containers kept in this one, which are still changed by the repair
+     */
+    void freeze(Container container, Map<JsonNode, JsonNode> frozen) {
+        if (container instanceof StreamArray) {
+            StreamArray array = (StreamArray) container;
+            Elements elements = array.elements;
+            JsonNode[] added = frozenCopy(elements.nodes, elements.kept, elements.size, frozen);
+            frozen.put(array.node, new ArrayNode(Json.FACTORY, new FrozenElements(elements.nodes, elements.kept, added)));
+        } else if (container instanceof StreamObject) {
+            StreamObject object = (StreamObject) container;
+            Members members = object.members;
+            // once a value that was there is replaced, or the values outgrew their array, the values are not those kept
+            int shared = members.values == members.keptValues ? members.kept : 0;
+            JsonNode[] values = frozenCopy(members.values, shared, members.size, frozen);
+            frozen.put(object.node, new ObjectNode(Json.FACTORY, new FrozenMembers(members.keys, members.values, shared,
+                    Arrays.copyOfRange(members.keys, shared, members.size), values)));
+        }
+    }
+
+    private static JsonNode[] frozenCopy(JsonNode[] nodes, int from, int to, Map<JsonNode, JsonNode> frozen) {
+        JsonNode[] copy = Arrays.copyOfRange(nodes, from, to);
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = frozen.getOrDefault(copy[i], copy[i]);
+        }
+        return copy;
+    }
+
+    private static class StreamArray extends Container {
+        private final Elements elements = new Elements();
+        // its value, see end()
+        private final ArrayNode node = new ArrayNode(Json.FACTORY, elements);
+
+        @Override
+        int size() {
+            return elements.size;
+        }
+    }
+
+    private static class StreamObject extends Container {
+        private final Members members = new Members();
+        // its value, see end()
+        private final ObjectNode node = new ObjectNode(Json.FACTORY, members);
+
+        @Override
+        int size() {
+            return members.size;
+        }
+
+        @Override
+        boolean has(String key) {
+            return members.containsKey(key);
+        }
+    }
+
+    /**
+     * The elements of an array, added at the end by the repair: those before {@link #kept} are shared by frozen nodes,
+     * so the array is copied before one of them is changed through the node handed out.
+     */
+    private static class Elements extends AbstractList<JsonNode> implements RandomAccess {
+        private JsonNode[] nodes = NO_NODES;
+        private int size;
+        private int kept;
+
+        @Override
+        public boolean add(JsonNode node) {
+            if (size == nodes.length) {
+                // a new array, the old one may be shared by a frozen node
+                nodes = Arrays.copyOf(nodes, Math.max(8, size * 2));
+            }
+            nodes[size++] = node;
+            modCount++;
+            return true;
+        }
+
+        @Override
+        public void add(int index, JsonNode node) {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            if (index == size) {
+                add(node);
+                return;
+            }
+            change(index);
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            System.arraycopy(nodes, index, nodes, index + 1, size - index);
+            nodes[index] = node;
+            size++;
+            modCount++;
+        }
+
+        @Override
+        public JsonNode set(int index, JsonNode node) {
+            JsonNode previous = get(index);
+            change(index);
+            nodes[index] = node;
+            return previous;
+        }
+
+        @Override
+        public JsonNode remove(int index) {
+            JsonNode previous = get(index);
+            change(index);
+            System.arraycopy(nodes, index + 1, nodes, index, size - index - 1);
+            nodes[--size] = null;
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            nodes = NO_NODES;
+            size = 0;
+            kept = 0;
+            modCount++;
+        }
+
+        @Override
+        public JsonNode get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return nodes[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Copies the array before the element at index changes, when it is one of those kept.
+         */
+        private void change(int index) {
+            if (index < kept) {
+                nodes = nodes.clone();
+                kept = index;
+            }
+        }
+    }
+
+    /**
+     * The members of an object in the order of their keys, as in a LinkedHashMap: members are added at the end by the
+     * repair, and the values before {@link #kept} are replaced in a copy of {@link #keptValues}. A member removed
+     * through the node handed out is removed from a copy too when it is one of those kept.
+     */
+    private static class Members extends IndexedMembers {
+        private String[] keys = NO_KEYS;
+        private JsonNode[] values = NO_NODES;
+        private int size;
+        private final Map<String, Integer> index = new HashMap<>();
+        private int kept;
+        private JsonNode[] keptValues = NO_NODES;
+
+        @Override
+        public JsonNode put(String key, JsonNode value) {
+            Integer i = index.get(key);
+            if (i != null) {
+                if (i < kept && values == keptValues) {
+                    values = values.clone();
+                }
+                JsonNode previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            if (size == keys.length) {
+                // new arrays, the old ones may be shared by a frozen node
+                boolean replaced = values != keptValues;
+                keys = Arrays.copyOf(keys, Math.max(8, size * 2));
+                values = Arrays.copyOf(values, keys.length);
+                if (!replaced) {
+                    keptValues = values;
+                }
+            }
+            keys[size] = key;
+            values[size] = value;
+            index.put(key, size++);
+            return null;
+        }
+
+        @Override
+        public JsonNode remove(Object key) {
+            Integer i = index.get(key);
+            if (i == null) {
+                return null;
+            }
+            JsonNode previous = values[i];
+            removeAt(i);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            keys = NO_KEYS;
+            values = NO_NODES;
+            keptValues = values;
+            index.clear();
+            size = 0;
+            kept = 0;
+        }
+
+        @Override
+        public JsonNode get(Object key) {
+            Integer i = index.get(key);
+            return i != null ? values[i] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return index.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        String key(int i) {
+            return keys[i];
+        }
+
+        @Override
+        JsonNode value(int i) {
+            return values[i];
+        }
+
+        @Override
+        void removeAt(int i) {
+            if (i < kept) {
+                keys = keys.clone();
+                values = values.clone();
+                kept = i;
+                keptValues = values;
+            }
+            index.remove(keys[i]);
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            size--;
+            keys[size] = null;
+            values[size] = null;
+            for (int j = i; j < size; j++) {
+                index.put(keys[j], j);
+            }
+        }
+    }
+
+    /**
+     * The elements of a frozen array: the first ones of a kept array, and a copy of those added after them. They are
+     * copied once changed through the node.
+     */
+    private static class FrozenElements extends AbstractList<JsonNode> implements RandomAccess {
+        private final JsonNode[] shared;
+        private final int sharedSize;
+        private final JsonNode[] added;
+        // made when the elements are first changed
+        private Elements own;
+
+        FrozenElements(JsonNode[] shared, int sharedSize, JsonNode[] added) {
+            this.shared = shared;
+            this.sharedSize = sharedSize;
+            this.added = added;
+        }
+
+        @Override
+        public JsonNode get(int index) {
+            if (own != null) {
+                return own.get(index);
+            }
+            return index < sharedSize ? shared[index] : added[index - sharedSize];
+        }
+
+        @Override
+        public int size() {
+            return own != null ? own.size() : sharedSize + added.length;
+        }
+
+        @Override
+        public void add(int index, JsonNode node) {
+            own().add(index, node);
+            modCount++;
+        }
+
+        @Override
+        public JsonNode set(int index, JsonNode node) {
+            return own().set(index, node);
+        }
+
+        @Override
+        public JsonNode remove(int index) {
+            modCount++;
+            return own().remove(index);
+        }
+
+        @Override
+        public void clear() {
+            own().clear();
+            modCount++;
+        }
+
+        private Elements own() {
+            if (own == null) {
+                Elements elements = new Elements();
+                for (int i = 0; i < size(); i++) {
+                    elements.add(get(i));
+                }
+                own = elements;
+            }
+            return own;
+        }
+    }
+
+    /**
+     * The members of a frozen object: the first ones of a kept object, and a copy of those added after them. They are
+     * copied once changed through the node.
+     */
+    private static class FrozenMembers extends IndexedMembers {
+        private final String[] sharedKeys;
+        private final JsonNode[] sharedValues;
+        private final int sharedSize;
+        private final String[] addedKeys;
+        private final JsonNode[] addedValues;
+        // made when a member is first looked up
+        private Map<String, JsonNode> index;
+        // made when the members are first changed
+        private Members own;
+
+        FrozenMembers(String[] sharedKeys, JsonNode[] sharedValues, int sharedSize, String[] addedKeys, JsonNode[] addedValues) {
+            this.sharedKeys = sharedKeys;
+            this.sharedValues = sharedValues;
+            this.sharedSize = sharedSize;
+            this.addedKeys = addedKeys;
+            this.addedValues = addedValues;
+        }
+
+        @Override
+        public JsonNode get(Object key) {
+            if (own != null) {
+                return own.get(key);
+            }
+            if (index == null) {
+                Map<String, JsonNode> members = new HashMap<>();
+                for (int i = 0; i < size(); i++) {
+                    members.put(key(i), value(i));
+                }
+                index = members;
+            }
+            return index.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return own != null ? own.size() : sharedSize + addedKeys.length;
+        }
+
+        @Override
+        public JsonNode put(String key, JsonNode value) {
+            return own().put(key, value);
+        }
+
+        @Override
+        public JsonNode remove(Object key) {
+            return own().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            own().clear();
+        }
+
+        @Override
+        String key(int i) {
+            if (own != null) {
+                return own.key(i);
+            }
+            return i < sharedSize ? sharedKeys[i] : addedKeys[i - sharedSize];
+        }
+
+        @Override
+        JsonNode value(int i) {
+            if (own != null) {
+                return own.value(i);
+            }
+            return i < sharedSize ? sharedValues[i] : addedValues[i - sharedSize];
+        }
+
+        @Override
+        void removeAt(int i) {
+            own().removeAt(i);
+        }
+
+        private Members own() {
+            if (own == null) {
+                Members members = new Members();
+                for (int i = 0; i < size(); i++) {
+                    members.put(key(i), value(i));
+                }
+                own = members;
+                index = null;
+            }
+            return own;
+        }
+    }
+
+    /**
+     * Members read by their position.
+     */
+    private abstract static class IndexedMembers extends AbstractMap<String, JsonNode> {
+
+        abstract String key(int i);
+
+        abstract JsonNode value(int i);
+
+        /**
+         * Removes the member at position i, those after it move up.
+         */
+        abstract void removeAt(int i);
+
+        @Override
+        public Set<Entry<String, JsonNode>> entrySet() {
+            return new AbstractSet<Entry<String, JsonNode>>() {
+                @Override
+                public Iterator<Entry<String, JsonNode>> iterator() {
+                    return new Iterator<Entry<String, JsonNode>>() {
+                        private int i;
+                        // the position of the member returned last, -1 once it is removed
+                        private int last = -1;
+
+                        @Override
+                        public boolean hasNext() {
+                            return i < size();
+                        }
+
+                        @Override
+                        public Entry<String, JsonNode> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            last = i;
+                            return new Member(i++);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last < 0) {
+                                throw new IllegalStateException();
+                            }
+                            removeAt(last);
+                            i = last;
+                            last = -1;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return IndexedMembers.this.size();
+                }
+            };
+        }
+
+        /**
+         * A member read by its position, setting its value sets it in the object.
+         */
+        private class Member extends SimpleEntry<String, JsonNode> {
+            private static final long serialVersionUID = 1L;
+
+            Member(int i) {
+                super(key(i), value(i));
+            }
+
+            @Override
+            public JsonNode setValue(JsonNode value) {
+                put(getKey(), value);
+                return super.setValue(value);
+            }
+        }
+    }
+}
@@ -1,13 +1,12 @@
 package org.jsonrepairj.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.google.common.collect.ImmutableMap;
+import org.jsonrepairj.FixCode;
+import org.jsonrepairj.InternTable;
 import org.jsonrepairj.StringOps;
 
-import java.util.Map;
-
 import static org.jsonrepairj.Constants.END;
-import static org.jsonrepairj.Constants.STRING_DELIMITERS;
+import static org.jsonrepairj.Constants.isStringDelimiter;
 import static org.jsonrepairj.Json.EMPTY_STRING;
 import static org.jsonrepairj.Json.FACTORY;
 import static org.jsonrepairj.StringOps.in;
@@ -16,12 +15,9 @@ import static org.jsonrepairj.parser.ContextValue.*;
 
 public class StringParser implements NodeParser {
 
-    static final Map<Character, Character> ESCAPE_SEQS = ImmutableMap.of(
-            't', '\t',
-            'n', '\n',
-            'r', '\r',
-            'b', '\b'
-    );
+    private static final char[] OBJECT_KEY_STOPS = {':', '}'};
+    private static final char[] ARRAY_STOPS = {']', ','};
+    private static final char[] KEY_LOOKUP_STOPS = {':', ',', '}', ']'};
 
     @Override
     public JsonNode parse(JSONParser parser) {
@@ -40,7 +36,7 @@ public class StringParser implements NodeParser {
             return parser.parseComment();
         }
         // A valid string can only start with a valid quote or, in our case, with a literal
-        while (ch != END && !STRING_DELIMITERS.contains(ch) && !Character.isLetterOrDigit(ch)) {
+        while (ch != END && !isStringDelimiter(ch) && !Character.isLetterOrDigit(ch)) {
             parser.shift();
             ch = parser.getCharAt();
         }
@@ -66,7 +62,7 @@ public class StringParser implements NodeParser {
                     return value;
                 }
             }
-            parser._log("While parsing a string, we found a literal instead of a quote");
+            parser._log(FixCode.LITERAL_INSTEAD_OF_QUOTE);
             missingQuotes = true;
         }
 
@@ -75,7 +71,7 @@ public class StringParser implements NodeParser {
         }
 
         // There is sometimes a weird case of doubled quotes, we manage this also later in the while loop
-        if (STRING_DELIMITERS.contains(parser.getCharAt()) && parser.getCharAt() == lstringDelimiter) {
+        if (isStringDelimiter(parser.getCharAt()) && parser.getCharAt() == lstringDelimiter) {
             // If it's an empty key, this was easy
             if ((parser.getCurrentContext() == OBJECT_KEY && parser.getCharAt(1) == ':') ||
                     (parser.getCurrentContext() == OBJECT_VALUE &&
@@ -84,7 +80,7 @@ public class StringParser implements NodeParser {
                 return EMPTY_STRING;
             } else if (parser.getCharAt(1) == lstringDelimiter) {
                 // There's something fishy about this, we found doubled quotes and then again quotes
-                parser._log("While parsing a string, we found a doubled quote and then a quote again, ignoring it");
+                parser._log(FixCode.DOUBLED_QUOTE_THEN_QUOTE);
                 return EMPTY_STRING;
             }
             // Find the next delimiter
@@ -93,28 +89,28 @@ public class StringParser implements NodeParser {
             // Now check that the next character is also a delimiter to ensure that we have "".....""
             // In that case we ignore this rstring delimiter
             if (nextC != END && parser.getCharAt(i + 1) == rstringDelimiter) {
-                parser._log("While parsing a string, we found a valid starting doubled quote");
+                parser._log(FixCode.VALID_STARTING_DOUBLED_QUOTE);
                 doubledQuotes = true;
                 parser.shift();
             } else {
                 // Ok this is not a doubled quote, check if this is an empty string or not
                 i = parser.skipWhitespacesAt(1, false);
                 nextC = parser.getCharAt(i);
-                if (nextC != END && (STRING_DELIMITERS.contains(nextC) ||
+                if (nextC != END && (isStringDelimiter(nextC) ||
                         nextC == '{' || nextC == '[')) {
                     // something fishy is going on here
-                    parser._log("While parsing a string, we found a doubled quote but also another quote afterwards, ignoring it");
+                    parser._log(FixCode.DOUBLED_QUOTE_AND_QUOTE_AFTERWARDS);
                     parser.shift();
                     return EMPTY_STRING;
                 } else if (",]}".indexOf(nextC) == -1) {
-                    parser._log("While parsing a string, we found a doubled quote but it was a mistake, removing one quote");
+                    parser._log(FixCode.MISTAKEN_DOUBLED_QUOTE);
                     parser.shift();
                 }
             }
         }
 
         // Initialize our return value
-        StringBuilder stringAcc = new StringBuilder();
+        StringBuilder stringAcc = parser.stringBuffer();
 
         // Here things get a bit hairy because a string missing the final quote can also be a key or a value in an object
         // In that case we need to use the ":|,|}" characters as terminators of the string
@@ -127,10 +123,10 @@ public class StringParser implements NodeParser {
         while (notIn(ch, END, rstringDelimiter)) {
             if (missingQuotes) {
                 if (parser.getCurrentContext() == OBJECT_KEY && (ch == ':' || Character.isWhitespace(ch))) {
-                    parser._log("While parsing a string missing the left delimiter in object key context, we found a :, stopping here");
+                    parser._log(FixCode.MISSING_LEFT_QUOTE_KEY_COLON);
                     break;
                 } else if (parser.getCurrentContext() == ARRAY && (in(ch, ']', ','))) {
-                    parser._log("While parsing a string missing the left delimiter in array context, we found a ] or ,, stopping here");
+                    parser._log(FixCode.MISSING_LEFT_QUOTE_ARRAY_STOP);
                     break;
                 }
             }
@@ -209,7 +205,7 @@ public class StringParser implements NodeParser {
                     }
                 }
                 if (rstringDelimiterMissing) {
-                    parser._log("While parsing a string missing the left delimiter in object value context, we found a , or } and we couldn't determine that a right delimiter was present. Stopping here");
+                    parser._log(FixCode.MISSING_LEFT_QUOTE_VALUE_STOP);
                     break;
                 }
             }
@@ -238,9 +234,9 @@ public class StringParser implements NodeParser {
             }
             if (ch != END && StringOps.last(stringAcc) == '\\') {
                 // This is a special case, if people use real strings this might happen
-                parser._log("Found a stray escape sequence, normalizing it");
+                parser._log(FixCode.STRAY_ESCAPE);
                 if (in(ch, rstringDelimiter, 't', 'n', 'r', 'b', '\\')) {
-                    StringOps.setLast(stringAcc, ESCAPE_SEQS.getOrDefault(ch, ch));
+                    StringOps.setLast(stringAcc, unescape(ch));
                     parser.shift();
                     ch = parser.getCharAt();
                     while (ch != END && StringOps.last(stringAcc) == '\\' && in(ch, rstringDelimiter, '\\')) {
@@ -254,18 +250,21 @@ public class StringParser implements NodeParser {
                 } else if (in(ch, 'u', 'x')) {
                     // If we find a unicode escape sequence, normalize it
                     int numChars = ch == 'u' ? 4 : 2;
-                    String nextChars = parser.getJsonStr().substring(parser.getIndex() + 1, parser.getIndex() + 1 + numChars);
-                    if (nextChars.length() == numChars) {
-                        if (nextChars.chars().allMatch(c -> "0123456789abcdefABCDEF".indexOf(c) != -1)) {
-                            parser._log("Found a unicode escape sequence, normalizing it");
-                            StringOps.setLast(stringAcc, (char) Integer.parseInt(nextChars, 16));
-                            parser.shift(1 + numChars);
-                            ch = parser.getCharAt();
-                            continue;
-                        }
+                    int code = 0;
+                    int read = 0;
+                    while (read < numChars && "0123456789abcdefABCDEF".indexOf(parser.getCharAt(1 + read)) != -1) {
+                        code = code * 16 + Character.digit(parser.getCharAt(1 + read), 16);
+                        read++;
                     }
-                } else if (STRING_DELIMITERS.contains(ch) && ch != rstringDelimiter) {
-                    parser._log("Found a delimiter that was escaped but shouldn't be escaped, removing the escape");
+                    if (read == numChars) {
+                        parser._log(FixCode.UNICODE_ESCAPE);
+                        StringOps.setLast(stringAcc, (char) code);
+                        parser.shift(1 + numChars);
+                        ch = parser.getCharAt();
+                        continue;
+                    }
+                } else if (isStringDelimiter(ch) && ch != rstringDelimiter) {
+                    parser._log(FixCode.ESCAPED_DELIMITER);
                     StringOps.setLast(stringAcc, ch);
                     parser.shift();
                     ch = parser.getCharAt();
@@ -290,12 +289,12 @@ public class StringParser implements NodeParser {
                         nextC = parser.getCharAt(i);
                         if (in(nextC, ',', '}')) {
                             // Ok then this is a missing right quote
-                            parser._log("While parsing a string missing the right delimiter in object key context, we found a :, stopping here");
+                            parser._log(FixCode.MISSING_RIGHT_QUOTE_KEY_COLON);
                             break;
                         }
                     }
                 } else {
-                    parser._log("While parsing a string missing the right delimiter in object key context, we found a :, stopping here");
+                    parser._log(FixCode.MISSING_RIGHT_QUOTE_KEY_COLON);
                     break;
                 }
             }
@@ -303,13 +302,13 @@ public class StringParser implements NodeParser {
             if (ch == rstringDelimiter && StringOps.last(stringAcc) != '\\') {
                 // Special case here, in case of double quotes one after another
                 if (doubledQuotes && parser.getCharAt(1) == rstringDelimiter) {
-                    parser._log("While parsing a string, we found a doubled quote, ignoring it");
+                    parser._log(FixCode.DOUBLED_QUOTE);
                     parser.shift();
                 } else if (missingQuotes && parser.getCurrentContext() == OBJECT_VALUE) {
                     // In case of missing starting quote I need to check if the delimeter is the end or the beginning of a key
                     int i = 1;
                     char nextC = parser.getCharAt(i);
-                    while (!notIn(nextC, END, rstringDelimiter, lstringDelimiter)) {
+                    while (in(nextC, rstringDelimiter, lstringDelimiter)) {
                         i++;
                         nextC = parser.getCharAt(i);
                     }
@@ -320,7 +319,7 @@ public class StringParser implements NodeParser {
                         if (nextC == ':') {
                             parser.shift(-1);
                             ch = parser.getCharAt();
-                            parser._log("In a string with missing quotes and object value context, I found a delimeter but it turns out it was the beginning on the next key. Stopping here.");
+                            parser._log(FixCode.NEXT_KEY_IN_VALUE);
                             break;
                         }
                     }
@@ -331,25 +330,36 @@ public class StringParser implements NodeParser {
                     ch = parser.getCharAt();
                 } else {
                     // Check if eventually there is a rstring delimiter, otherwise we bail
-                    int i = 1;
+                    // If we are in an object context, let's check for the right delimiters
+                    int i = Math.min(parser.scanToCharacter(rstringDelimiter, 1), parser.scanToCharacter(lstringDelimiter, 1));
+                    if (parser.getContext().contains(OBJECT_KEY)) {
+                        i = Math.min(i, parser.scanToCharacter(OBJECT_KEY_STOPS, 1));
+                    }
+                    if (parser.getContext().contains(OBJECT_VALUE)) {
+                        i = Math.min(i, parser.scanToCharacter('}', 1));
+                    }
+                    if (parser.getContext().contains(ARRAY)) {
+                        i = Math.min(i, parser.scanToCharacter(ARRAY_STOPS, 1));
+                    }
                     char nextC = parser.getCharAt(i);
-                    boolean checkCommaInObjectValue = true;
-                    while (nextC != END && nextC != rstringDelimiter && nextC != lstringDelimiter) {
+                    if (parser.getCurrentContext() == OBJECT_VALUE) {
                         // This is a bit of a weird workaround, essentially in object_value context we don't always break on commas
                         // This is because the routine after will make sure to correct any bad guess and this solves a corner case
-                        if (checkCommaInObjectValue && Character.isLetterOrDigit(nextC)) {
-                            checkCommaInObjectValue = false;
-                        }
-                        // If we are in an object context, let's check for the right delimiters
-                        if (parser.getContext().contains(OBJECT_KEY) && in(nextC, ':', '}') ||
-                                parser.getContext().contains(OBJECT_VALUE) && nextC == '}' ||
-                                parser.getContext().contains(ARRAY) && in(nextC, ']', ',') ||
-                                checkCommaInObjectValue && parser.getCurrentContext() == OBJECT_VALUE && nextC == ','
-                        ) {
-                            break;
+                        // We only break on a comma that comes before any letter or digit
+                        int comma = parser.scanToCharacter(',', 1);
+                        if (comma < i) {
+                            boolean checkCommaInObjectValue = true;
+                            for (int j = 1; j < comma; j++) {
+                                if (Character.isLetterOrDigit(parser.getCharAt(j))) {
+                                    checkCommaInObjectValue = false;
+                                    break;
+                                }
+                            }
+                            if (checkCommaInObjectValue) {
+                                i = comma;
+                                nextC = ',';
+                            }
                         }
-                        i++;
-                        nextC = parser.getCharAt(i);
                     }
                     // If we stopped for a comma in object_value context, let's check if find a "} at the end of the string
                     if (nextC == ',' && parser.getCurrentContext() == OBJECT_VALUE) {
@@ -361,7 +371,7 @@ public class StringParser implements NodeParser {
                         i = parser.skipWhitespacesAt(i, false);
                         nextC = parser.getCharAt(i);
                         if (nextC == '}' || nextC == ',') {
-                            parser._log("While parsing a string, we a misplaced quote that would have closed the string but has a different meaning here, ignoring it");
+                            parser._log(FixCode.MISPLACED_QUOTE);
                             stringAcc.append(ch);
                             parser.shift();
                             ch = parser.getCharAt();
@@ -391,7 +401,7 @@ public class StringParser implements NodeParser {
                                 i = parser.skipWhitespacesAt(i, false);
                                 nextC = parser.getCharAt(i);
                                 if (nextC == ':') {
-                                    parser._log("\"While parsing a string, we a misplaced quote that would have closed the string but has a different meaning here, ignoring it");
+                                    parser._log(FixCode.MISPLACED_QUOTE);
                                     stringAcc.append(ch);
                                     parser.shift();
                                     ch = parser.getCharAt();
@@ -402,17 +412,13 @@ public class StringParser implements NodeParser {
                             // so find a rstring_delimiter and a colon after
                             i = parser.skipToCharacter(rstringDelimiter, i + 1);
                             i++;
+                            // Look for a colon, stopping at the first , } ] or unescaped rstring_delimiter
+                            i = Math.min(parser.scanToCharacter(KEY_LOOKUP_STOPS, i),
+                                    parser.skipToCharacter(rstringDelimiter, i));
                             nextC = parser.getCharAt(i);
-                            while (notIn(nextC, END, ':')) {
-                                if (in(nextC, ',', '}', ']') || nextC == rstringDelimiter && parser.getCharAt(i - 1) != '\\') {
-                                    break;
-                                }
-                                i++;
-                                nextC = parser.getCharAt(i);
-                            }
                             // Only if we fail to find a ':' then we know this is misplaced quote
                             if (nextC != ':') {
-                                parser._log("While parsing a string, we a misplaced quote that would have closed the string but has a different meaning here, ignoring it");
+                                parser._log(FixCode.MISPLACED_QUOTE);
                                 unmatchedDelimiter = !unmatchedDelimiter;
                                 stringAcc.append(ch);
                                 parser.shift();
@@ -420,20 +426,18 @@ public class StringParser implements NodeParser {
                             }
                         } else if (parser.getCurrentContext() == ARRAY) {
                             // Let's check if after this quote there are two quotes in a row followed by a comma or a closing bracket
-                            char[] limit = new char[]{rstringDelimiter, ']'};
-                            i = parser.skipToCharacter(limit, i + 1);
+                            i = Math.min(parser.skipToCharacter(rstringDelimiter, i + 1), parser.skipToCharacter(']', i + 1));
                             nextC = parser.getCharAt(i);
                             boolean evenDelimiters = nextC != END && nextC == rstringDelimiter;
-                            while (evenDelimiters && nextC != END && nextC == rstringDelimiter) {
-                                i = parser.skipToCharacter(limit, i + 1);
-                                i = parser.skipToCharacter(limit, i + 1);
+                            if (evenDelimiters) {
+                                i = parser.skipDelimiterPairs(rstringDelimiter, ']', i);
                                 nextC = parser.getCharAt(i);
                             }
                             if (evenDelimiters && nextC != ']') {
                                 // If we got up to here it means that this is a situation like this:
                                 // ["bla bla bla "puppy" bla bla bla "kitty" bla bla"]
                                 // So we need to ignore this quote
-                                parser._log("While parsing a string in Array context, we detected a quoted section that would have closed the string but has a different meaning here, ignoring it");
+                                parser._log(FixCode.QUOTED_SECTION_IN_ARRAY);
                                 unmatchedDelimiter = !unmatchedDelimiter;
                                 stringAcc.append(ch);
                                 parser.shift();
@@ -443,7 +447,7 @@ public class StringParser implements NodeParser {
                             }
                         } else if (parser.getCurrentContext() == OBJECT_KEY) {
                             // In this case we just ignore this and move on
-                            parser._log("While parsing a string in Object Key context, we detected a quoted section that would have closed the string but has a different meaning here, ignoring it");
+                            parser._log(FixCode.QUOTED_SECTION_IN_KEY);
                             stringAcc.append(ch);
                             parser.shift();
                             ch = parser.getCharAt();
@@ -455,7 +459,7 @@ public class StringParser implements NodeParser {
         }
 
         if (ch != END && missingQuotes && parser.getCurrentContext() == OBJECT_KEY && Character.isWhitespace(ch)) {
-            parser._log("While parsing a string, handling an extreme corner case in which the LLM added a comment instead of valid string, invalidate the string and return an empty value");
+            parser._log(FixCode.COMMENT_INSTEAD_OF_STRING);
             parser.skipWhitespacesAt();
             char c = parser.getCharAt();
             if (c != ':' && c != ',') {
@@ -468,7 +472,7 @@ public class StringParser implements NodeParser {
         if (ch != rstringDelimiter) {
             // if stream_stable = True, unclosed strings do not trim trailing whitespace characters
             if (!parser.isStreamStable()) {
-                parser._log("While parsing a string, we missed the closing quote, ignoring");
+                parser._log(FixCode.MISSING_CLOSING_QUOTE);
                 StringOps.rstrip(stringAcc);
             }
         } else {
@@ -479,6 +483,25 @@ public class StringParser implements NodeParser {
             // Clean the whitespaces for some corner cases
             StringOps.rstrip(stringAcc);
         }
-        return FACTORY.textNode(stringAcc.toString());
+        InternTable internTable = parser.getOptions().getInternTable();
+        return internTable != null ? internTable.textNode(stringAcc) : FACTORY.textNode(stringAcc.toString());
+    }
+
+    /**
+     * @return the character that a backslash followed by ch stands for, or ch itself
+     */
+    static char unescape(char ch) {
+        switch (ch) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'b':
+                return '\b';
+            default:
+                return ch;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,233 @@
+package org.jsonrepairj.parser;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.google.common.io.CharStreams;
+import org.jsonrepairj.Json;
+import org.jsonrepairj.NodeBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Writes the json to a Writer, as serializing the tree would, the top level values separated by commas.
+ * {@link #build()} tells how many there were, for the caller to put them in an array when there are several, unless
+ * this puts them in one itself, see {@link #TextBuilder(Appendable)}.
+ */
+class TextBuilder implements NodeBuilder<Integer> {
+    private final JsonGenerator generator;
+    // the text of the first top level value until the next one shows up, null when the values are not put in an array
+    private final HoldingWriter first;
+    private int depth;
+    private int values;
+
+    TextBuilder(Writer out) {
+        this(out, null);
+    }
+
+    /**
+     * Writes the top level values to out in an array when there are several, the same text as serializing the tree
+     * {@link JSONParser#parse()} returns: the first value is held back until the next one shows up, then written after
+     * the '[', and the values after it are written as they are parsed.
+     */
+    TextBuilder(Appendable out) {
+        this(null, new HoldingWriter(CharStreams.asWriter(out)));
+    }
+
+    private TextBuilder(Writer out, HoldingWriter first) {
+        try {
+            this.generator = Json.MAPPER.getFactory().createGenerator(first != null ? first : out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        generator.setRootValueSeparator(new SerializedString(","));
+        this.first = first;
+    }
+
+    @Override
+    public void startObject() {
+        try {
+            value();
+            depth++;
+            generator.writeStartObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void key(String key) {
+        try {
+            generator.writeFieldName(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void endObject() {
+        try {
+            depth--;
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void startArray() {
+        try {
+            value();
+            depth++;
+            generator.writeStartArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void endArray() {
+        try {
+            depth--;
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void stringValue(String value) {
+        try {
+            value();
+            generator.writeString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void numberValue(Number value) {
+        try {
+            value();
+            if (value instanceof Integer) {
+                generator.writeNumber((Integer) value);
+            } else if (value instanceof Long) {
+                generator.writeNumber((Long) value);
+            } else if (value instanceof BigInteger) {
+                generator.writeNumber((BigInteger) value);
+            } else if (value instanceof BigDecimal) {
+                generator.writeNumber((BigDecimal) value);
+            } else {
+                generator.writeNumber(value.doubleValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void booleanValue(boolean value) {
+        try {
+            value();
+            generator.writeBoolean(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void nullValue() {
+        try {
+            value();
+            generator.writeNull();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes what is written, out is left open.
+     *
+     * @return the number of top level values written
+     */
+    @Override
+    public Integer build() {
+        try {
+            if (first != null && values > 1) {
+                generator.writeRaw(']');
+            }
+            generator.flush();
+            if (first != null && values == 1) {
+                first.release("");
+                first.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return values;
+    }
+
+    private void value() throws IOException {
+        if (depth == 0 && ++values == 2 && first != null) {
+            generator.flush();
+            first.release("[");
+        }
+    }
+
+    /**
+     * Holds what is written until released, then writes to out.
+     */
+    private static class HoldingWriter extends Writer {
+        private final Writer out;
+        private StringBuilder held = new StringBuilder();
+
+        HoldingWriter(Writer out) {
+            this.out = out;
+        }
+
+        /**
+         * Writes prefix and what was held to out, which gets all that is written from then on.
+         */
+        void release(String prefix) throws IOException {
+            out.write(prefix);
+            out.append(held);
+            held = null;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (held != null) {
+                held.append(cbuf, off, len);
+            } else {
+                out.write(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            if (held != null) {
+                held.append(str, off, off + len);
+            } else {
+                out.write(str, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (held == null) {
+                out.flush();
+            }
+        }
+
+        /**
+         * out is the caller's, it is left open.
+         */
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
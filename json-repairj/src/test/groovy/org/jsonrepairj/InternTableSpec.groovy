@@ -0,0 +1,47 @@
+package org.jsonrepairj
+
+import spock.lang.Specification
+
+class InternTableSpec extends Specification {
+
+    def "test_interned_keys_and_values"() {
+        given:
+        def repairer = new JsonRepairer(RepairOptions.builder().internTable(new InternTable()).build())
+
+        when:
+        def first = repairer.parseJson('{name: "alpha", note: "a long note, longer than the strings interned"}', true, false).json
+        def second = repairer.parseJson('[{"name": "alpha", note: "a long note, longer than the strings interned"}]', true, false).json[0]
+
+        then:
+        first.fieldNames().next().is(second.fieldNames().next())
+        first.get('name').is(second.get('name'))
+        !first.get('note').is(second.get('note'))
+        first == second
+    }
+
+    def "test_same_repair"() {
+        given:
+        // a single slot, every string takes it from the one before
+        def options = RepairOptions.builder().internTable(new InternTable(1, 4)).build()
+
+        expect:
+        JsonRepair.toJsonString(JsonRepair.parseJson(input, true, false, LogLevel.OFF, options)) == JsonRepair.toJsonString(JsonRepair.parseJson(input, true, false, LogLevel.OFF))
+
+        where:
+        input << ['{a: b, b: a, "a": "ab", c: ["a", "b", "a"]}', '{"key": "value", "key2": "value"', '["", "", "é", "e"]']
+    }
+
+    def "test_table_size"() {
+        when:
+        new InternTable(size, maxLength)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        size          | maxLength
+        0             | 32
+        (1 << 30) + 1 | 32
+        16            | -1
+    }
+}
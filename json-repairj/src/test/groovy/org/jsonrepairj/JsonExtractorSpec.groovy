@@ -0,0 +1,87 @@
+package org.jsonrepairj
+
+import spock.lang.Specification
+
+class JsonExtractorSpec extends Specification {
+
+    static List<String> extract(String text) {
+        JsonRepair.extractJson(text).collect { JsonRepair.toJsonString(new ParseResult(it.json, [])) }
+    }
+
+    def "test_extract_json"() {
+        expect:
+        extract(input) == expected
+
+        where:
+        input                                                                                 | expected
+        'Sure! Here is the result:\n```json\n{"name": "Alice", "age": 30}\n```\nAnything else?' | ['{"name":"Alice","age":30}']
+        'Here:\n```json\n{"tags": ["a", "b"\n```\nand another\n```JSON\n[1, 2]\n```'           | ['{"tags":["a","b"]}', '[1,2]']
+        '```\n{"a": 1}\n```'                                                                  | ['{"a":1}']
+        'Truncated: ```json\n{"items": [{"id": 1}, {"id": 2'                                  | ['{"items":[{"id":1},{"id":2}]}']
+        'The answer is {"a": 1, b: 2} and also [1, 2, 3]. Done.'                              | ['{"a":1,"b":2}', '[1,2,3]']
+        '# Title\nSee http://x.com/y\n```python\nd = {"a": 1}\n```\nResult: {"ok": true}'     | ['{"ok":true}']
+        // fences of json win over the brackets of the prose
+        'See [1].\n```json\n{"a": 1}\n```'                                                    | ['{"a":1}']
+        'no json here at all'                                                                 | []
+        '```bash\nls -la\n```'                                                                | []
+        '```json\n\n```'                                                                      | []
+    }
+
+    def "test_offsets"() {
+        given:
+        def text = 'prefix {"a": "x"} middle\n```json\n {"b": "y"} \n```'
+
+        expect:
+        JsonRepair.extractJson('prefix {"a": "x"} middle {"b": "y"} end').collect { [it.start, it.end, it.fenced] } == [[7, 17, false], [25, 35, false]]
+        JsonRepair.extractJson(text).collect { text.substring(it.start, it.end) } == ['{"b": "y"}']
+        JsonRepair.extractJson(text)[0].fenced
+    }
+
+    def "test_extract_first_json"() {
+        expect:
+        JsonRepair.extractFirstJson('a {"a": 1} b {"b": 2}').json == Json.MAPPER.readTree('{"a": 1}')
+        JsonRepair.extractFirstJson('[1] then\n```json\n{"b": 2}\n```\n```json\n{"c": 3}\n```').json == Json.MAPPER.readTree('{"b": 2}')
+        JsonRepair.extractFirstJson('nothing') == null
+    }
+
+    def "test_extract_with_options"() {
+        given:
+        def options = RepairOptions.builder().maxDepth(1).build()
+
+        expect:
+        JsonRepair.toJsonString(new ParseResult(JsonRepair.extractFirstJson('x {"a": {"b": 1}} y', options).json, [])) == '{"a":null}'
+    }
+
+    def "test_limits_of_each_block"() {
+        given:
+        def options = RepairOptions.builder().maxNodes(2).build()
+
+        expect:
+        // each block has the nodes the options allow, whatever the blocks before it
+        JsonRepair.extractJson('a {"a": 1, "b": 2} b {"c": 3, "d": 4} c', options).collect {
+            JsonRepair.toJsonString(new ParseResult(it.json, []))
+        } == ['{"a":1,"b":2}', '{"c":3,"d":4}']
+        // and is read from its first bracket, not in the context the previous one was left in
+        JsonRepair.extractJson('a {"a": 1, "b": 2, "c": 3} b ["x", "y"] c', options).collect {
+            JsonRepair.toJsonString(new ParseResult(it.json, []))
+        } == ['{"a":1,"b":2}', '["x","y"]']
+    }
+
+    def "test_fail_on_limit_of_each_block"() {
+        given:
+        def options = RepairOptions.builder().maxNodes(2).failOnLimit(true).build()
+
+        when:
+        def blocks = JsonRepair.extractJson('a {"a": 1, "b": 2} b {"c": 3, "d": 4} c', options)
+
+        then:
+        blocks.size() == 2
+
+        when:
+        JsonRepair.extractJson('a {"a": 1, "b": 2} b {"c": 3, "d": 4, "e": 5} c', options)
+
+        then:
+        def e = thrown(RepairLimitException)
+        e.limit == RepairLimit.NODES
+    }
+}
@@ -1,7 +1,14 @@
 package org.jsonrepairj
 
+import org.jsonrepairj.parser.JSONParser
 import spock.lang.Specification
 
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.ForkJoinPool
+
 class JsonRepairSpec extends Specification {
     def "test_valid_json"() {
         given:
@@ -39,4 +46,234 @@ class JsonRepairSpec extends Specification {
         // feels like unnecessary
 //        '[{"key":"value"}][{"key":"value_after"}]'                            | '[{"key":"value_after"}]'
     }
+
+    def "test_repair_to_appendable"() {
+        given:
+        def out = new StringBuilder()
+        def writer = new StringWriter()
+
+        when:
+        JsonRepair.repairJson(input, out)
+        JsonRepair.repairJson(input, writer)
+
+        then:
+        out.toString() == expected
+        writer.toString() == expected
+        // same json as repairJson, written the same way unless a key is repeated
+        Json.MAPPER.readTree(expected) == Json.MAPPER.readTree(JsonRepair.repairJson(input))
+
+        where:
+        input                                       | expected
+        '{"name": "John", "age": 30, "city": "NY"}' | '{"name":"John","age":30,"city":"NY"}'
+        '{"a": [1, {"b": 2}], "c": null}'           | '{"a":[1,{"b":2}],"c":null}'
+        '{"a": [1, {"b": 2'                         | '{"a":[1,{"b":2}]}'
+        '[[], {}, [[1]], 2'                         | '[[[1]],2]'
+        '{"a": [], "b": {}, "c": ,}'                | '{"a":[],"b":{},"c":null}'
+        '{"a": [1], [2], "b": 2}'                   | '{"a":[1,2],"b":2}'
+        '["id": 1, "v": "x", "id": 2, "v": "y"]'    | '[{"id":1,"v":"x"},{"id":2,"v":"y"}]'
+        '{"a": 1} {"b": 2'                          | '[{"a":1},{"b":2}]'
+        '{"a": 1} garbage'                          | '{"a":1}'
+        '1 2'                                       | ''
+        ''                                          | ''
+        '{"a": 1, "a": 2, "b": 3'                   | '{"a":1,"a":2,"b":3}'
+        '{"a": 1, "a": 2, "b": 3}'                  | '{"a":1,"a":2,"b":3}'
+    }
+
+    def "test_repair_to_appendable_while_parsing"() {
+        given:
+        def input = '{"a": 1} ["x", ' + '"x", ' * 10000
+        // full long before the repaired json is all written
+        def out = new StringWriter() {
+            @Override
+            void write(char[] cbuf, int off, int len) {
+                if (buffer.length() + len > 20000) {
+                    throw new IOException("full")
+                }
+                super.write(cbuf, off, len)
+            }
+        }
+
+        when:
+        JsonRepair.repairJson(input, out)
+
+        then:
+        def e = thrown(IOException)
+        e.message == 'full'
+        // the first value once the second one showed up, and the second one as it was parsed
+        out.toString().startsWith('[{"a":1},["x","x",')
+    }
+
+    def "test_repair_into_builder"() {
+        when:
+        def node = JsonRepair.repairJson(input, new JsonNodeBuilder())
+        def value = JsonRepair.repairJson(input, new MapListBuilder())
+
+        then:
+        node.toString() == JsonRepair.parseJson(input, false, false).json.toString()
+        value == expected
+
+        where:
+        input                                        | expected
+        '{"name": "John", "age": 30, "tags": ["a"]}' | [name: 'John', age: 30, tags: ['a']]
+        '{"a": [1, {"b": 2.5'                        | [a: [1, [b: 2.5d]]]
+        '[[], {}, [[1]], true, null'                 | [[[1]], true, null]
+        '{"a": [1], [2], "b": 2}'                    | [a: [1, 2], b: 2]
+        '{"a": 1, "a": 2, "b": 3'                    | [a: 2, b: 3]
+        '["id": 1, "v": "x", "id": 2, "v": "y"]'     | [[id: 1, v: 'x'], [id: 2, v: 'y']]
+        '{"a": 1} {"b": 2'                           | [[a: 1], [b: 2]]
+        '12345678901234567890'                       | 12345678901234567890G
+        ''                                           | null
+    }
+
+    def "test_repair_utf8"() {
+        given:
+        byte[] utf8 = input.getBytes(StandardCharsets.UTF_8)
+        def direct = ByteBuffer.allocateDirect(utf8.length).put(utf8)
+        direct.flip()
+
+        expect:
+        JsonRepair.repairJson(utf8) == expected
+        JsonRepair.repairJson(ByteBuffer.wrap(utf8)) == expected
+        JsonRepair.repairJson(direct) == expected
+        direct.remaining() == utf8.length
+        JsonRepair.repairJson(new ByteArrayInputStream(utf8)) == expected
+        JsonRepair.parseJson(utf8, false, false).json == JsonRepair.parseJson(input, false, false).json
+        JsonRepair.parseJson(utf8, false, false).logger == JsonRepair.parseJson(input.replace('\uFEFF', ''), false, false).logger
+        JsonRepair.parseJson(direct, false, false).logger == JsonRepair.parseJson(input.replace('\uFEFF', ''), false, false).logger
+
+        where:
+        input                                           | expected
+        '{"name": "Jöhn", "city": "東京", "emoji": "😀"}' | '{"name":"Jöhn","city":"東京","emoji":"😀"}'
+        '{"name": "Jöhn", "city": "東京'                  | '{"name":"Jöhn","city":"東京"}'
+        '{“key”: “välue”, "n": [1, 2]}'                 | '{"key":"välue","n":[1,2]}'
+        '\uFEFF{"a": "ü"}'                              | '{"a":"ü"}'
+        '```json\n["日本", 語]\n```'                      | '["日本","語"]'
+        ''                                              | ''
+    }
+
+    def "test_repair_file"() {
+        given:
+        Path dir = Files.createTempDirectory("json-repairj")
+        Path input = dir.resolve("input.json")
+        Path output = dir.resolve("output.json")
+        Files.write(input, text.getBytes(StandardCharsets.UTF_8))
+
+        when:
+        JsonRepair.repairJson(input, output)
+
+        then:
+        new String(Files.readAllBytes(output), StandardCharsets.UTF_8) == expected
+        // nothing left next to it
+        Files.list(dir).count() == 2
+
+        cleanup:
+        Files.deleteIfExists(input)
+        Files.deleteIfExists(output)
+        Files.deleteIfExists(dir)
+
+        where:
+        text                                            | expected
+        '{"name": "Jöhn", "city": "東京", "emoji": "😀"}' | '{"name":"Jöhn","city":"東京","emoji":"😀"}'
+        '{"name": "Jöhn", "city": "東京'                  | '{"name":"Jöhn","city":"東京"}'
+        '\uFEFF{"a": "ü"}'                              | '{"a":"ü"}'
+        '[1, 2] {"a": "😀"} "x'                          | '[[1,2],{"a":"😀"}]'
+        '{"a": 1} {"a": 1}'                             | '[{"a":1},{"a":1}]'
+        '[1, 2'                                         | '[1,2]'
+        // decoded a block at a time, a surrogate pair across two blocks
+        '["' + 'é' * 1023 + '😀' * 700 + '", ' + 'ü' * 5   | '["' + 'é' * 1023 + '😀' * 700 + '","' + 'ü' * 5 + '"]'
+        ''                                              | ''
+    }
+
+    def "test_repair_lines"() {
+        given:
+        def out = new StringWriter()
+
+        when:
+        JsonRepair.repairLines(new StringReader(input), out, executor)
+
+        then:
+        out.toString() == expected
+
+        where:
+        input                                            | executor                        | expected
+        '{"a": 1}\n{b: 2\n\n[1, 2,]\n'                   | ForkJoinPool.commonPool()       | '{"a":1}\n{"b":2}\n[1,2]\n'
+        '{"a": 1}\r\n{"a": 2} {"a": 3}\r\nx\r\n{"c": "d' | { Runnable task -> task.run() } | '{"a":1}\n[{"a":2},{"a":3}]\n{"c":"d"}\n'
+        ''                                               | ForkJoinPool.commonPool()       | ''
+    }
+
+    def "test_repair_lines_in_order"() {
+        given:
+        // many batches, repaired concurrently
+        def lines = (0..<20_000).collect { "{id: $it, 'name': \"record $it\", \"tags\": [1, 2," }
+        def out = new StringWriter()
+        def pool = new ForkJoinPool(4)
+
+        when:
+        JsonRepair.repairLines(new StringReader(lines.join('\n')), out, pool)
+
+        then:
+        out.toString().readLines() == lines.collect { JsonRepair.repairJson(it) }
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "test_repair_values"() {
+        expect:
+        JsonRepair.repairValues(input).collect { it.toString() } == expected
+
+        where:
+        input                      | expected
+        '{"a": 1} {"b": 2}'        | ['{"a":1}', '{"b":2}']
+        '{"a": 1}\n{b: 2}\n[1, 2'  | ['{"a":1}', '{"b":2}', '[1,2]']
+        'log: {"a": 1} then [1, 2' | ['{"a":1}', '[1,2]']
+        '{"a": 1}'                 | ['{"a":1}']
+        'no json here'             | []
+        ''                         | []
+    }
+
+    def "test_values_parsed_one_at_a_time"() {
+        given:
+        def parser = new JSONParser('{"id": 0}' + ' {id: 1, "v": [1, 2' * 100_000, false)
+
+        when:
+        def first = parser.values().next()
+
+        then:
+        first.toString() == '{"id":0}'
+        // nothing past the first value has been parsed yet
+        parser.index == '{"id": 0}'.length()
+    }
+
+    def "test_deep_nesting"() {
+        when:
+        def repaired = JsonRepair.repairJson(input)
+
+        then:
+        // no StackOverflowError, and Jackson reads back what is nested up to its maximum depth
+        Json.MAPPER.readTree(repaired) != null
+        repaired.count('[') + repaired.count('{') == JSONParser.DEFAULT_MAX_DEPTH
+
+        where:
+        input << ['[' * 100_000, '{"a": ' * 100_000, '[{"a": ' * 50_000]
+    }
+
+    def "test_max_depth"() {
+        given:
+        def parser = new JSONParser(input, false)
+        parser.options = RepairOptions.builder().maxDepth(2).build()
+
+        when:
+        def result = parser.parse()
+
+        then:
+        result.json.toString() == expected
+        result.logger*.code.contains(FixCode.TOO_DEEP)
+
+        where:
+        input                                         | expected
+        '[[[[1, 2], 3], 4], 5]'                       | '[[null,4],5]'
+        '{"a": {"b": {"c": "]}"}, "d": 1}, "e": [1]}' | '{"a":{"b":null,"d":1},"e":[1]}'
+        '[[[1, {"a": [1'                              | '[[null]]'
+    }
 }
@@ -0,0 +1,28 @@
+package org.jsonrepairj
+
+import spock.lang.Shared
+import spock.lang.Specification
+
+class JsonRepairerSpec extends Specification {
+
+    @Shared
+    def repairer = new JsonRepairer()
+
+    def "test_reused_repairer"() {
+        expect:
+        repairer.repairJson(input) == JsonRepair.repairJson(input)
+        repairer.parseJson(input, true, true) == JsonRepair.parseJson(input, true, true)
+        JsonRepairer.forCurrentThread().repairJson(input) == JsonRepair.repairJson(input)
+
+        where:
+        input << [
+                '{"name": "John", "age": 30, "city": "New York"}',
+                '["id": 1, "name": "a", "id": 2, "name": "b"]',
+                '{"key": "value with "inner" quotes", "list": [1, 2',
+                '',
+                '{"key": "val\\u00e9ue", key2: 12.5e3} // done',
+                'lorem ```json {"key":"value"} ``` ipsum ```json [1,2,3,True] ``` 42',
+                "{'test_中国人_ascii':'统一码'",
+        ]
+    }
+}
@@ -0,0 +1,90 @@
+package org.jsonrepairj
+
+import spock.lang.Specification
+
+class JsonValidatorSpec extends Specification {
+    def "test_is_valid"() {
+        expect:
+        JsonValidator.isValid(input) == expected
+        // the same answer as letting Jackson try
+        expected == readable(input)
+
+        where:
+        input                                             | expected
+        ''                                                | true
+        ' \n\t'                                           | true
+        '{"a": [1, -2.5e+3, 0, true, false, null]}'       | true
+        '[1.5e307, 100000e300, 2.5e-323, 0e400]'          | true
+        '[{}, [], [[]], "", "\\"\\\\\\/\\b\\f\\n\\r\\t"]' | true
+        '"\\u00e9"'                                       | true
+        ' 12 '                                            | true
+        '{"a": 1, "a": 2}'                                | true
+        '{"a": 1'                                         | false
+        '{"a": 1,}'                                       | false
+        '[1, 2'                                           | false
+        '{a: 1}'                                          | false
+        "{'a': 1}"                                        | false
+        '{"a" 1}'                                         | false
+        '[01]'                                            | false
+        '[1.]'                                            | false
+        '[.5]'                                            | false
+        '[-]'                                             | false
+        '[1e]'                                            | false
+        '[+1]'                                            | false
+        '[True]'                                          | false
+        '[true1]'                                         | false
+        '"\\x"'                                           | false
+        '"\\u00g9"'                                       | false
+        '"a\tb"'                                          | false
+        '"abc'                                            | false
+        '{"a": 1} {"b": 2}'                               | false
+        '1 2'                                             | false
+        '[1] // comment'                                  | false
+        '\f[1]'                                           | false
+        '[' * 1000 + ']' * 1000                           | true
+        '[' * 1000 + '[]' + ']' * 1000                    | false
+        '1' * 1000                                        | true
+        '1' * 1001                                        | false
+    }
+
+    def "test_is_valid_float_out_of_double_range"() {
+        expect:
+        // Jackson reads it, as an infinite or zero double
+        !JsonValidator.isValid(input)
+        readable(input)
+
+        where:
+        input << ['[1e400]', '[-1e-400]', '[0.0001e-321]', '[1234.5e305]', '[1e99999999999]']
+    }
+
+    def "test_is_valid_utf8"() {
+        given:
+        byte[] utf8 = input.decodeHex()
+
+        expect:
+        JsonValidator.isValid(utf8, 0, utf8.length) == expected
+        expected == readable(utf8)
+
+        where:
+        input                        | expected
+        '225c7530306539c3a9e697a522' | true    // an escape, é and 日
+        '22f09f988022'               | true    // "😀"
+        '22c3a922'                   | true
+        '22c322'                     | false   // truncated
+        '22c34122'                   | false   // not a continuation byte
+        '22ff22'                     | false
+        '2280'                       | false
+        '7b22c3a9223a317d'           | true    // {"é":1}
+        '7b22ff64223a317d'           | false
+        'c3a9'                       | false   // outside a string
+    }
+
+    private static boolean readable(Object input) {
+        try {
+            Json.MAPPER.readTree(input)
+            return true
+        } catch (Exception ignored) {
+            return false
+        }
+    }
+}
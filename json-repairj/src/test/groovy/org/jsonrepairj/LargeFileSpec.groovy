@@ -0,0 +1,67 @@
+package org.jsonrepairj
+
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * Run by the largeFileTest task, whose heap is smaller than the file.
+ */
+class LargeFileSpec extends Specification {
+
+    def "test_repair_file_larger_than_heap"() {
+        given:
+        Path dir = Files.createTempDirectory("json-repairj")
+        Path input = dir.resolve("input.json")
+        Path output = dir.resolve("output.json")
+        long records = 0
+        long size = 1
+        new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(input), StandardCharsets.UTF_8)).withCloseable {
+            it.write('[')
+            while (size < Runtime.runtime.maxMemory() + (16 << 20)) {
+                // unquoted key, single quotes, trailing comma, True, and the array is never closed
+                String record = "{id: ${records}, 'name': \"Jöhn 東京 😀\", \"tags\": [1, 2,], \"ok\": True},\n"
+                it.write(record)
+                size += record.getBytes(StandardCharsets.UTF_8).length
+                records++
+            }
+        }
+
+        when:
+        JsonRepair.repairJson(input, output)
+
+        then:
+        Files.size(input) > Runtime.runtime.maxMemory()
+        countElements(output) == records
+
+        cleanup:
+        Files.deleteIfExists(input)
+        Files.deleteIfExists(output)
+        Files.deleteIfExists(dir)
+    }
+
+    /**
+     * @return how many elements the top level array has, the whole file being valid json
+     */
+    static long countElements(Path file) {
+        long count = 0
+        Json.MAPPER.getFactory().createParser(file.toFile()).withCloseable { JsonParser parser ->
+            assert parser.nextToken() == JsonToken.START_ARRAY
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                assert parser.currentToken() == JsonToken.START_OBJECT
+                assert parser.nextFieldName() == 'id'
+                assert parser.nextLongValue(-1) == count
+                while (parser.nextToken() != JsonToken.END_OBJECT) {
+                    parser.skipChildren()
+                }
+                count++
+            }
+            assert parser.nextToken() == null
+        }
+        return count
+    }
+}
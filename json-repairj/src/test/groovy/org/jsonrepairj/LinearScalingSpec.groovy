@@ -0,0 +1,86 @@
+package org.jsonrepairj
+
+import spock.lang.Retry
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.lang.management.ManagementFactory
+import java.lang.management.ThreadMXBean
+
+/**
+ * Repairs each family of inputs at doubling sizes and fits the growth of the time: time ~ size^exponent, the exponent
+ * being the slope of log(time) over log(size). A linear repair is at ~1, a quadratic one at ~2.
+ */
+class LinearScalingSpec extends Specification {
+
+    static final List<Integer> SIZES = [128_000, 256_000, 512_000, 1_024_000]
+    static final double MAX_EXPONENT = 1.2
+    // the cpu time of the repairing thread, not counting the collector threads nor the other processes
+    static final ThreadMXBean THREADS = ManagementFactory.threadMXBean
+
+    static long bestOf(int runs, String input) {
+        long best = Long.MAX_VALUE
+        // the garbage of the previous input is not collected in the middle of this one
+        System.gc()
+        runs.times {
+            long start = THREADS.currentThreadCpuTime
+            JsonRepair.parseJson(input, true, false)
+            best = Math.min(best, THREADS.currentThreadCpuTime - start)
+        }
+        return best
+    }
+
+    /**
+     * @return head, then unit repeated up to about size chars, then tail
+     */
+    static String repeat(String head, String unit, String tail, int size) {
+        return head + unit * Math.max(1, (size / unit.length()) as int) + tail
+    }
+
+    static double exponent(List<Integer> sizes, List<Long> times) {
+        def xs = sizes.collect { Math.log(it) }
+        def ys = times.collect { Math.log(it) }
+        double mx = xs.sum() / xs.size()
+        double my = ys.sum() / ys.size()
+        double covariance = 0
+        double variance = 0
+        xs.indices.each {
+            covariance += (xs[it] - mx) * (ys[it] - my)
+            variance += (xs[it] - mx) * (xs[it] - mx)
+        }
+        return covariance / variance
+    }
+
+    // a timing can be off now and then on a busy machine, a quadratic path is off every time
+    @Retry(count = 2)
+    @Timeout(120)
+    def "test_linear_scaling"() {
+        given:
+        def inputs = SIZES.collect { generator(it) as String }
+        bestOf(5, inputs.last()) // warm up
+
+        when:
+        def times = inputs.collect { bestOf(5, it) }
+
+        then:
+        exponent(inputs*.length(), times) < MAX_EXPONENT
+
+        where:
+        family                | generator
+        // every comma looks ahead for a closing quote and a colon
+        'object value commas' | { int n -> repeat('{"key": "', 'a, ', '', n) }
+        // every quote looks ahead for quote pairs and the closing ]
+        'array inner quotes'  | { int n -> repeat('["', 'x "y" ', '"]', n) }
+        'value inner quotes'  | { int n -> repeat('{"key": "', 'a "b", ', '"}', n) }
+        'strings with quotes' | { int n -> repeat('[', '"x "y" z", ', ']', n) }
+        'unquoted value'      | { int n -> repeat('{"key": ', 'some words ', '}', n) }
+        'unquoted members'    | { int n -> '{' + (1..(n / 16)).collect { "k$it: value $it" }.join(', ') + '}' }
+        // every repeated key rolls back and opens a new object
+        'duplicate keys'      | { int n -> repeat('[', '"id": 1, "name": "a", ', ']', n) }
+        'missing braces'      | { int n -> repeat('[', '{"id": 1, "name": "a", ', ']', n) }
+        'doubled quotes'      | { int n -> repeat('{"a": [', '""x"", ', ']}', n) }
+        'comments'            | { int n -> repeat('[', '/* c */ 1, // x\n', ']', n) }
+        'deep nesting'        | { int n -> repeat('', '[{"a": ', '', n) }
+        'truncated'           | { int n -> repeat('[', '{"id": 1, "tags": ["a", "b"]}, ', '', n) + '{"id": 2, "na' }
+    }
+}
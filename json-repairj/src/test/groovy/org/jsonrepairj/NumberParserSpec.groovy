@@ -40,4 +40,36 @@ class NumberParserSpec extends Specification {
         '{"key": 1notanumber }'                            | '{"key":"1notanumber"}'
         "[1, 2notanumber]"                                 | '[1,"2notanumber"]'
     }
+
+    def "test_parse_big_number"() {
+        expect:
+        JsonRepair.repairJson(input) == expected
+
+        where:
+        input                                              | expected
+        '[2147483648, -0, 007'                             | '[2147483648,0,7]'
+        '{"key": 12345678901234567890'                     | '{"key":12345678901234567890}'
+        '{"key": -9223372036854775809'                     | '{"key":-9223372036854775809}'
+        '{"key": 9223372036854775807'                      | '{"key":9223372036854775807}'
+        '[0.1, -0.0, 1e22, 2.5e23, 4.9e-324'               | '[0.1,-0.0,1.0E22,2.5E23,4.9E-324]'
+        '[1.7976931348623157e308, -2.2250738585072014E-308' | '[1.7976931348623157E308,-2.2250738585072014E-308]'
+        '[3.14159265358979323846'                          | '[3.141592653589793]'
+        '[1e400, -1e-400'                                  | '[1E+400,-1E-400]'
+        '[1e99999999999'                                   | '["1e99999999999"]'
+    }
+
+    def "test_parse_nearest_double"() {
+        expect:
+        // Double.toString of these differs between JDKs, the value doesn't
+        JsonRepair.parseJson('[1e23, 8.41e21, 5e-324', false, false).json.collect { it.doubleValue() } == [1e23d, 8.41e21d, 5e-324d]
+    }
+
+    def "test_valid_and_repaired_numbers_agree"() {
+        expect:
+        JsonRepair.parseJson(input + ']', false, false).json == JsonRepair.parseJson(input, false, false).json
+        JsonRepair.repairJson(input + ']') == JsonRepair.repairJson(input)
+
+        where:
+        input << ['[3.14159265358979323846', '[1e400, -1e-400', '[1.7976931348623157e308, 4.9e-324, 0e400', '[1e99999999999']
+    }
 }
@@ -58,5 +58,7 @@ class ObjectParserSpec extends Specification {
         '{ "key": ["arrayvalue"], "key3": "value3", ["arrayvalue1"] }'                  | '{"key":["arrayvalue"],"key3":"value3","arrayvalue1":null}'
         '{"key": "{\\\\"key\\\\\\":[\\"value\\\\\\"],\\"key2\\":"value2"}"}'            | '{"key":"{\\"key\\":[\\"value\\"],\\"key2\\":\\"value2\\"}"}'
         '{"key": , "key2": "value2"}'                                                   | '{"key":null,"key2":"value2"}'
+        '["id": 1, "name": "a", "id": 2, "name": "b"]'                                  | '[{"id":1,"name":"a"},{"id":2,"name":"b"}]'
+        '[{"a": 1, "a": {"b": 1, "b": 2}, "a": 5}]'                                     | '[{"a":5}]'
     }
 }
@@ -0,0 +1,68 @@
+package org.jsonrepairj
+
+import spock.lang.Specification
+
+class RepairCacheSpec extends Specification {
+
+    def "test_cached_repair"() {
+        given:
+        def cache = new RepairCache(1 << 20)
+
+        expect:
+        cache.repairJson(input) == JsonRepair.repairJson(input)
+        cache.repairJson(input) == JsonRepair.repairJson(input)
+        cache.parseJson(input, false, false) == JsonRepair.parseJson(input, false, false)
+        cache.parseJson(input, false, false) == JsonRepair.parseJson(input, false, false)
+        cache.parseJson(input, true, true, LogLevel.CODES) == JsonRepair.parseJson(input, true, true, LogLevel.CODES)
+        cache.stats().hitCount() == 2
+        cache.stats().missCount() == 3
+
+        where:
+        input << [
+                '{"name": "John", "age": 30, "city": "New York"}',
+                '{"key": "value with "inner" quotes", "list": [1, 2',
+                '',
+                "{'test_中国人_ascii':'统一码'",
+        ]
+    }
+
+    def "test_hit_returns_a_copy"() {
+        given:
+        def cache = new RepairCache(1 << 20)
+        def first = cache.parseJson('{list: [1, 2', false, false)
+
+        when:
+        first.json.withArray('list').add(3)
+        first.logger.clear()
+        def second = cache.parseJson('{list: [1, 2', false, false)
+
+        then:
+        second.json.toString() == '{"list":[1,2]}'
+        !second.logger.isEmpty()
+        cache.stats().hitCount() == 1
+    }
+
+    def "test_eviction"() {
+        given:
+        def cache = new RepairCache(1000)
+
+        when:
+        50.times { cache.repairJson('{"id": ' + it + ', "name": "a name long enough"') }
+
+        then:
+        cache.size() < 50
+        cache.stats().evictionCount() > 0
+        cache.repairJson('{"id": 49, "name": "a name long enough"') == '{"id":49,"name":"a name long enough"}'
+    }
+
+    def "test_options"() {
+        given:
+        def cache = new RepairCache(1 << 20, RepairOptions.builder().maxNodes(2).build())
+
+        expect:
+        cache.repairJson('[1, 2, 3, 4]') == '[1,2]'
+        cache.parseJson('[1, 2, 3, 4]', false, false).limit == RepairLimit.NODES
+        cache.parseJson('[1, 2, 3, 4]', false, false).limit == RepairLimit.NODES
+        cache.stats().hitCount() == 1
+    }
+}
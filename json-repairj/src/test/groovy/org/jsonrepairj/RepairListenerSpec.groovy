@@ -0,0 +1,82 @@
+package org.jsonrepairj
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+class RepairListenerSpec extends Specification {
+
+    static class Recorder implements RepairListener {
+        List<List> events = []
+
+        @Override
+        void validJson(int length, long nanos) {
+            events << ['valid', length]
+        }
+
+        @Override
+        void repaired(int length, long nanos, int maxDepth) {
+            events << ['repaired', length, maxDepth]
+        }
+
+        @Override
+        void fixed(FixCode code) {
+            events << [code]
+        }
+    }
+
+    def "test_listener"() {
+        given:
+        def recorder = new Recorder()
+        def options = RepairOptions.builder().listener(recorder).build()
+
+        when:
+        repair(input, options)
+
+        then:
+        recorder.events == expected
+
+        where:
+        input                | repair                                                                    | expected
+        '[1, 2]'             | { s, o -> JsonRepair.repairJson(s, o) }                                   | [['valid', 6]]
+        '{"a": [1, {"b": "x' | { s, o -> JsonRepair.repairJson(s, o) }                                   | [[FixCode.MISSING_CLOSING_QUOTE], ['repaired', 18, 3]]
+        '{"a": [1, {"b": "x' | { s, o -> JsonRepair.parseJson(s, false, false, LogLevel.OFF, o) }        | [[FixCode.MISSING_CLOSING_QUOTE], ['repaired', 18, 3]]
+        '[1, 2'              | { s, o -> new JsonRepairer(o).repairJson(s) }                             | [['repaired', 5, 1]]
+        '[1, 2'              | { s, o -> new JsonRepairer(o).repairJson(s, new StringBuilder()) }        | [['repaired', 5, 1]]
+        '[1, 2'              | { s, o -> new RepairCache(100, o).repairJson(s) }                         | [['repaired', 5, 1]]
+        'x {"a": [1]} y'     | { s, o -> JsonRepair.extractJson(s, o) }                                  | [['repaired', 14, 2]]
+        '{"a": [1'           | { s, o -> new StreamingJsonRepairer(o).append(s).result }                 | [['repaired', 8, 2]]
+    }
+
+    def "test_no_listener"() {
+        given:
+        def recorder = new Recorder()
+        def options = RepairOptions.builder().listener(recorder).build()
+
+        when:
+        // the options of the repairs, nothing else, tell who listens
+        JsonRepair.repairJson('{"a": [1, {"b": "x')
+        JsonRepair.repairJson('{"a": [1, {"b": "x', options.toBuilder().listener(RepairListener.NONE).build())
+        new JsonRepairer().repairJson('{"a": [1')
+
+        then:
+        recorder.events.isEmpty()
+    }
+
+    def "test_micrometer"() {
+        given:
+        def registry = new SimpleMeterRegistry()
+        def options = RepairOptions.builder().listener(new MicrometerRepairListener(registry)).build()
+
+        when:
+        JsonRepair.repairJson('[1, 2]', options)
+        JsonRepair.repairJson('{"a": [1, {"b": "x', options)
+        JsonRepair.repairJson('[1, {"b": "x', options)
+
+        then:
+        registry.get('jsonrepair.duration').tag('outcome', 'valid').timer().count() == 1
+        registry.get('jsonrepair.duration').tag('outcome', 'repaired').timer().count() == 2
+        registry.get('jsonrepair.input.size').tag('outcome', 'repaired').summary().totalAmount() == 30
+        registry.get('jsonrepair.depth').summary().max() == 3
+        registry.get('jsonrepair.fixes').tag('code', 'MISSING_CLOSING_QUOTE').counter().count() == 2
+    }
+}
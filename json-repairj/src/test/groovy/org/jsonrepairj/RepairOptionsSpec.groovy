@@ -0,0 +1,82 @@
+package org.jsonrepairj
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RepairOptionsSpec extends Specification {
+
+    def "test_partial_repair"() {
+        when:
+        def result = JsonRepair.parseJson(input, false, false, LogLevel.CODES, options.build())
+
+        then:
+        result.json.toString() == expected
+        result.limit == limit
+        (limit != null) == result.logger*.code.contains(FixCode.LIMIT_REACHED)
+
+        where:
+        options                                    | input                     | expected        | limit
+        RepairOptions.builder()                    | '{"a": 1'                 | '{"a":1}'       | null
+        RepairOptions.builder().maxInputLength(10) | '{"a": 1, "b": 2}'        | '{"a":1}'       | RepairLimit.INPUT_LENGTH
+        RepairOptions.builder().maxInputLength(16) | '{"a": 1, "b": 2}'        | '{"a":1,"b":2}' | null
+        RepairOptions.builder().maxNodes(2)        | '[1, 2, 3, 4]'            | '[1,2]'         | RepairLimit.NODES
+        RepairOptions.builder().maxNodes(2)        | '{"a": [1, 2], "b": 3}'   | '{"a":[1]}'     | RepairLimit.NODES
+        RepairOptions.builder().maxSteps(10)       | '[1, 2, 3, 4, 5, 6, 7, 8' | '[1]'           | RepairLimit.STEPS
+    }
+
+    def "test_depth_limit"() {
+        when:
+        def result = JsonRepair.parseJson('[[1], 2]', false, false, LogLevel.CODES, RepairOptions.builder().maxDepth(1).build())
+
+        then:
+        // the array too deep is left out, the rest is repaired
+        result.json.toString() == '[null,2]'
+        result.limit == RepairLimit.DEPTH
+        result.logger*.code == [FixCode.TOO_DEEP]
+    }
+
+    def "test_fail_on_limit"() {
+        when:
+        JsonRepair.repairJson(input, options.failOnLimit(true).build())
+
+        then:
+        def e = thrown(RepairLimitException)
+        e.limit == limit
+
+        where:
+        options                                        | input                     | limit
+        // valid json too
+        RepairOptions.builder().maxInputLength(10)     | '{"a": 1, "b": 2}'        | RepairLimit.INPUT_LENGTH
+        RepairOptions.builder().maxNodes(2)            | '[1, 2, 3, 4]'            | RepairLimit.NODES
+        RepairOptions.builder().maxDepth(1)            | '[[1], 2]'                | RepairLimit.DEPTH
+        RepairOptions.builder().maxSteps(10)           | '[1, 2, 3, 4, 5, 6, 7, 8' | RepairLimit.STEPS
+        RepairOptions.builder().timeout(Duration.ZERO) | '[' + '1, ' * 10_000      | RepairLimit.TIME
+    }
+
+    def "test_budget_bounds_a_bad_input"() {
+        given:
+        def input = '{"a": "' + 'b" c ' * 100_000
+        def options = RepairOptions.builder().maxSteps(10_000).build()
+
+        when:
+        def result = JsonRepair.parseJson(input, false, false, LogLevel.OFF, options)
+
+        then:
+        result.limit == RepairLimit.STEPS
+        // what was repaired within the budget, as valid json
+        Json.MAPPER.readTree(JsonRepair.toJsonString(result)) == result.json
+        result.json.get('a').textValue().length() < 10_000
+    }
+
+    def "test_repairer_with_options"() {
+        given:
+        def repairer = new JsonRepairer(RepairOptions.builder().maxNodes(2).build())
+
+        expect:
+        // the limits apply to every repair, each one with a budget of its own
+        repairer.repairJson('[1, 2, 3, 4]') == '[1,2]'
+        repairer.repairJson('[5, 6, 7]') == '[5,6]'
+        repairer.repairJson('[8]') == '[8]'
+    }
+}
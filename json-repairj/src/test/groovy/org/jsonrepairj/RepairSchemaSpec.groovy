@@ -0,0 +1,80 @@
+package org.jsonrepairj
+
+import spock.lang.Specification
+
+class RepairSchemaSpec extends Specification {
+    static final RepairSchema SCHEMA = RepairSchema.fromJsonSchema('''{"type": "object", "properties": {
+        "volume": {"type": "string"}, "position": {"type": "string"}, "code": {"type": "string"},
+        "count": {"type": "integer"}, "tags": {"type": "array", "items": {"type": "string"}},
+        "items": {"type": "array", "items": {"type": "object", "properties": {"id": {"type": "integer"}}}}}}''')
+    static final RepairOptions OPTIONS = RepairOptions.builder().schema(SCHEMA).build()
+
+    static String repair(String input) {
+        JsonRepair.toJsonString(JsonRepair.parseJson(input, true, false, LogLevel.OFF, OPTIONS))
+    }
+
+    def "test_schema_keys"() {
+        expect:
+        repair(input) == expected
+
+        where:
+        input                                          | expected
+        '{volume: "+", position: "空"}'                 | '{"volume":"+","position":"空"}'
+        '{"volume: "+", "position": "空"}'              | '{"volume":"+","position":"空"}'
+        '{volume": "+", position": "空"}'               | '{"volume":"+","position":"空"}'
+        "{'volume': '+', 'position\": '空'}"            | '{"volume":"+","position":"空"}'
+        '{"volume": "+", "+", "position": "空"}'        | '{"volume":"+","position":"空"}'
+        '{"volume": "+", "+"}'                         | '{"volume":"+"}'
+        '{code: 007, count: 007}'                      | '{"code":"007","count":7}'
+        '{tags: [01, 02]}'                             | '{"tags":["01","02"]}'
+        '{"items": [{id: 1}, {"id: 2}]}'               | '{"items":[{"id":1},{"id":2}]}'
+        '{volumes: 1, volume: "2"}'                    | '{"volumes":1,"volume":"2"}'
+        '{"a": "+", "+", "b": 2}'                      | '{"a":"+","b":2}'
+    }
+
+    def "test_unknown_keys"() {
+        expect:
+        repair(input) == JsonRepair.toJsonString(JsonRepair.parseJson(input, true, false, LogLevel.OFF))
+
+        where:
+        input << ['{vol: 1}', '{"items": [{"id": 1, "id": 2}]}', '{"volume": "a", "volume": "b"}', '[01, {volume: 1}]']
+    }
+
+    def "test_schema_fixes"() {
+        when:
+        def result = JsonRepair.parseJson('{"volume: "+", "+", position": "空"}', true, false, LogLevel.FULL, OPTIONS)
+
+        then:
+        result.logger*.code == [FixCode.MISQUOTED_SCHEMA_KEY, FixCode.STRAY_STRING_IN_OBJECT, FixCode.MISQUOTED_SCHEMA_KEY]
+        result.logger*.text == [
+                'While parsing an object key, we matched a key of the schema missing a quote: "volume, adding it',
+                'While parsing an object with a schema, we found a string where a key was expected, not followed by a colon: "+",, ignoring it',
+                'While parsing an object key, we matched a key of the schema missing a quote: position", adding it']
+    }
+
+    def "test_from_json_schema"() {
+        expect:
+        SCHEMA.type == RepairSchema.Type.OBJECT
+        SCHEMA.property('volume') == RepairSchema.STRING
+        SCHEMA.property('count') == RepairSchema.NUMBER
+        SCHEMA.property('tags').items == RepairSchema.STRING
+        SCHEMA.property('items').items.property('id') == RepairSchema.NUMBER
+        SCHEMA.property('missing') == null
+        RepairSchema.fromJsonSchema('{"type": ["string", "null"]}') == RepairSchema.ANY
+        RepairSchema.fromJsonSchema('{"properties": {"a": {}}}').property('a') == RepairSchema.ANY
+    }
+
+    def "test_valid_json"() {
+        expect:
+        JsonRepair.toJsonString(JsonRepair.parseJson('{"code": 7, "other": 1}', false, false, LogLevel.OFF, OPTIONS)) == '{"code":7,"other":1}'
+    }
+
+    def "test_repairer"() {
+        given:
+        def repairer = new JsonRepairer(OPTIONS)
+
+        expect:
+        repairer.repairJson('{"volume": "+", "+", position": "空"}') == '{"volume":"+","position":"空"}'
+        new RepairCache(1 << 20, OPTIONS).repairJson('{code: 007}') == '{"code":"007"}'
+    }
+}
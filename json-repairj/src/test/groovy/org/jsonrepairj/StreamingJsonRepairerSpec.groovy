@@ -0,0 +1,85 @@
+package org.jsonrepairj
+
+import spock.lang.Specification
+
+class StreamingJsonRepairerSpec extends Specification {
+
+    def "test_streaming_repair"() {
+        given:
+        def repairer = new StreamingJsonRepairer()
+
+        expect:
+        for (int i = 0; i < input.length(); i += chunk) {
+            String prefix = input.substring(0, Math.min(i + chunk, input.length()))
+            repairer.append(prefix.substring(i))
+            assert repairer.getResult() == JsonRepair.parseJson(prefix, true, true)
+        }
+
+        where:
+        input                                                                                    | chunk
+        '{"name": "John", "age": 30, "tags": ["a", "b"], "address": {"city": "NY"}}'             | 1
+        '{"name": "John", "age": 30, "tags": ["a", "b"], "address": {"city": "NY"}}'             | 3
+        '```json\n{"key": "value with \\"quotes\\" and \\u00e9", "list": [1, 2.5, -3e2]}\n```'   | 2
+        '[{"id": 1, "text": "lorem, ipsum"}, {"id": 2, text: ipsum}, {"id": 3, "ok": true}]'     | 1
+        '{"a": [1, 2], "a": [3, 4], "b": "x"} // trailing comment'                              | 4
+        '["id": 0, "name": "n0", "id": 1, "name": "n1", "id": 2, "name": "n2"]'                  | 1
+        'Here is the answer: {"steps": ["one", "two"], "done": false, "note": "fin"} thanks'     | 5
+    }
+
+    def "test_result_is_cached_until_append"() {
+        given:
+        def repairer = new StreamingJsonRepairer().append('{"a": [1, 2')
+
+        when:
+        def first = repairer.getResult()
+
+        then:
+        repairer.getResult().is(first)
+        first.json.toString() == '{"a":[1,2]}'
+
+        when:
+        repairer.append(', 3]}')
+
+        then:
+        repairer.getText() == '{"a": [1, 2, 3]}'
+        repairer.getResult().json.toString() == '{"a":[1,2,3]}'
+        first.json.toString() == '{"a":[1,2]}'
+    }
+
+    def "test_result_can_be_changed"() {
+        given:
+        def repairer = new StreamingJsonRepairer().append('{"a": [1, 2], "b": {"c": 1}, "e": [3')
+        def first = repairer.getResult().json
+
+        when:
+        first.get('e').insert(0, 0).add(4).remove(1)
+        def fields = first.fields()
+        fields.next()
+        fields.remove()
+        fields.next().setValue(Json.FACTORY.textNode('x'))
+        first.put('f', 5)
+        repairer.append(', 6]}')
+
+        then:
+        first.toString() == '{"b":"x","e":[0,4],"f":5}'
+        // the repair goes on from what it kept
+        repairer.getResult().json.toString() == '{"a":[1,2],"b":{"c":1},"e":[3,6]}'
+    }
+
+    def "test_work_per_chunk_stays_flat"() {
+        given:
+        // a budget of steps for each repair far below the length of the text
+        def repairer = new StreamingJsonRepairer(RepairOptions.builder().maxSteps(1000).failOnLimit(true).build())
+        def text = '[' + (0..<2000).collect { '{"id": ' + it + ', "name": "item ' + it + '", "tags": ["a", "b"]}' }.join(', ') + ']'
+
+        when:
+        for (int i = 0; i < text.length(); i += 7) {
+            repairer.append(text.substring(i, Math.min(i + 7, text.length())))
+            repairer.getResult()
+        }
+
+        then:
+        notThrown(RepairLimitException)
+        repairer.getResult().json == Json.MAPPER.readTree(text)
+    }
+}
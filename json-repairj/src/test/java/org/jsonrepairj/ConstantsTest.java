@@ -0,0 +1,15 @@
+package org.jsonrepairj;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConstantsTest {
+
+    @Test
+    void charClassesMatchSets() {
+        for (char c = Character.MIN_VALUE; c < Character.MAX_VALUE; c++) {
+            Assertions.assertThat(Constants.isStringDelimiter(c)).as("%c", c).isEqualTo(Constants.STRING_DELIMITERS.contains(c));
+            Assertions.assertThat(Constants.isNumberChar(c)).as("%c", c).isEqualTo(Constants.NUMBER_CHARS.contains(c));
+        }
+    }
+}
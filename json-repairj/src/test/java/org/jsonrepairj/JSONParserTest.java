@@ -4,6 +4,8 @@ import org.assertj.core.api.Assertions;
 import org.jsonrepairj.parser.JSONParser;
 import org.junit.jupiter.api.Test;
 
+import java.util.stream.Collectors;
+
 class JSONParserTest {
 
     @Test
@@ -13,4 +15,109 @@ class JSONParserTest {
         parser.setIndex(5);
         Assertions.assertThat(parser.skipToCharacter('"', 2)).isEqualTo(7);
     }
-}
\ No newline at end of file
+
+    @Test
+    void skipToCharacterSkipsEscaped() {
+        JSONParser parser = new JSONParser("a\\\"b\"c", false);
+        Assertions.assertThat(parser.skipToCharacter('"', 0)).isEqualTo(4);
+        Assertions.assertThat(parser.scanToCharacter(new char[]{'"'}, 0)).isEqualTo(2);
+        // not found points past the end
+        Assertions.assertThat(parser.skipToCharacter('x', 0)).isEqualTo(6);
+        Assertions.assertThat(parser.skipToCharacter('x', 9)).isEqualTo(9);
+    }
+
+    @Test
+    void skipDelimiterPairs() {
+        JSONParser parser = new JSONParser("\"a \"b\" c\" d]", false);
+        // "a " and " c" are pairs, so the walk lands on ]
+        Assertions.assertThat(parser.skipDelimiterPairs('"', ']', 0)).isEqualTo(11);
+        // "b" is a pair, then ] is the second half of the next one so it is never landed on
+        Assertions.assertThat(parser.skipDelimiterPairs('"', ']', 3)).isEqualTo(12);
+    }
+
+    @Test
+    void insertCharacter() {
+        JSONParser parser = new JSONParser("ab", false);
+        parser.insertCharacter(1, '{');
+        Assertions.assertThat(parser.getCharAt(1)).isEqualTo('{');
+        parser.shift();
+        Assertions.assertThat(parser.getCharAt()).isEqualTo('{');
+        Assertions.assertThat(parser.getCharAt(1)).isEqualTo('b');
+        Assertions.assertThat(parser.skipToCharacter('b', 0)).isEqualTo(1);
+        parser.shift();
+        Assertions.assertThat(parser.getCharAt()).isEqualTo('b');
+        Assertions.assertThat(parser.getIndex()).isEqualTo(1);
+        Assertions.assertThat(parser.getJsonStr()).isEqualTo("ab");
+    }
+
+    @Test
+    void duplicateKeyRollbackKeepsSource() {
+        String jsonStr = "[\"id\": 1, \"id\": 2]";
+        JSONParser parser = new JSONParser(jsonStr, false);
+        Assertions.assertThat(parser.parse().getJson().toString()).isEqualTo("[{\"id\":1},{\"id\":2}]");
+        Assertions.assertThat(parser.getJsonStr()).isSameAs(jsonStr);
+    }
+
+    @Test
+    void resetForgetsPreviousInput() {
+        JSONParser parser = new JSONParser("[\"id\": 1, \"id\": 2, {\"a\": \"b", false);
+        ParseResult first = parser.parse();
+        parser.reset("{\"key\": [1, 2]}");
+        ParseResult second = parser.parse();
+        Assertions.assertThat(second.getJson().toString()).isEqualTo("{\"key\":[1,2]}");
+        Assertions.assertThat(second.getLogger()).isEmpty();
+        Assertions.assertThat(first.getLogger()).isNotEmpty();
+        Assertions.assertThat(parser.getContext().isEmpty()).isTrue();
+    }
+
+    @Test
+    void logLevels() {
+        String jsonStr = "{\"a\": 1 // note\n, \"b\": [1, 2";
+        ParseResult full = JsonRepair.parseJson(jsonStr, true, false, LogLevel.FULL);
+        ParseResult codes = JsonRepair.parseJson(jsonStr, true, false, LogLevel.CODES);
+        ParseResult off = JsonRepair.parseJson(jsonStr, true, false, LogLevel.OFF);
+
+        Assertions.assertThat(codes.getJson()).isEqualTo(full.getJson());
+        Assertions.assertThat(off.getJson()).isEqualTo(full.getJson());
+        Assertions.assertThat(full.getLogger()).extracting(FixInfo::getText)
+                .contains("Found line comment: // note, ignoring");
+        Assertions.assertThat(codes.getLogger()).extracting(FixInfo::getCode)
+                .containsExactlyElementsOf(full.getLogger().stream().map(FixInfo::getCode).collect(Collectors.toList()));
+        Assertions.assertThat(codes.getLogger()).extracting(FixInfo::getOffset)
+                .containsExactlyElementsOf(full.getLogger().stream().map(FixInfo::getOffset).collect(Collectors.toList()));
+        Assertions.assertThat(codes.getLogger()).extracting(FixInfo::getText).containsOnlyNulls();
+        Assertions.assertThat(off.getLogger()).isEmpty();
+    }
+
+    @Test
+    void fixLog() {
+        String jsonStr = "[1, /* a */ 2, // b\n {\"c\" 3}";
+        ParseResult result = JsonRepair.parseJson(jsonStr, true, false, LogLevel.FULL);
+        Assertions.assertThat(result.getLogger()).isInstanceOf(FixLog.class);
+        FixLog log = (FixLog) result.getLogger();
+
+        Assertions.assertThat(log.code(0)).isEqualTo(FixCode.BLOCK_COMMENT);
+        Assertions.assertThat(jsonStr.substring(log.start(0), log.end(0))).isEqualTo("/* a */");
+        Assertions.assertThat(log.get(0).getText()).isEqualTo("Found block comment: /* a */, ignoring");
+        Assertions.assertThat(log.get(0).getOffset()).isEqualTo(log.end(0));
+        Assertions.assertThat(log.code(1)).isEqualTo(FixCode.LINE_COMMENT);
+        Assertions.assertThat(jsonStr.substring(log.start(1), log.end(1))).isEqualTo("// b");
+        Assertions.assertThat(log.count(FixCode.LINE_COMMENT)).isEqualTo(1);
+        Assertions.assertThat(result.countFixes(FixCode.MISSING_COLON)).isEqualTo(1);
+        Assertions.assertThat(log.counts()).containsEntry(FixCode.BLOCK_COMMENT, 1).containsEntry(FixCode.LINE_COMMENT, 1);
+
+        // a fix about a position
+        FixInfo missingColon = log.get(2);
+        Assertions.assertThat(missingColon.getCode()).isEqualTo(FixCode.MISSING_COLON);
+        Assertions.assertThat(missingColon.getStart()).isEqualTo(missingColon.getEnd());
+    }
+
+    @Test
+    void fixInfoOfText() {
+        FixInfo fix = new FixInfo("Found a comment, ignoring", "// x");
+
+        Assertions.assertThat(fix.getCode()).isNull();
+        Assertions.assertThat(fix.getOffset()).isEqualTo(-1);
+        Assertions.assertThat(fix).isEqualTo(new FixInfo("Found a comment, ignoring", "// x", null, -1, -1, -1));
+    }
+}